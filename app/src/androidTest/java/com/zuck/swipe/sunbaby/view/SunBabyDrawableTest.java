@@ -0,0 +1,182 @@
+package com.zuck.swipe.sunbaby.view;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.test.InstrumentationTestCase;
+import android.util.DisplayMetrics;
+
+import com.zuck.swipe.sunbaby.view.model.SunBabyModel;
+
+/**
+ * Drawable 只有在启动、可见并且有宿主时才注册帧回调
+ */
+public class SunBabyDrawableTest extends InstrumentationTestCase {
+
+    private static final int SIZE = 240;
+
+    private final Drawable.Callback callback = new Drawable.Callback() {
+        @Override
+        public void invalidateDrawable(Drawable who) {
+        }
+
+        @Override
+        public void scheduleDrawable(Drawable who, Runnable what, long when) {
+        }
+
+        @Override
+        public void unscheduleDrawable(Drawable who, Runnable what) {
+        }
+    };
+
+    public void testTicksOnlyWhenStartedVisibleAndHosted() {
+        final Context context = getInstrumentation().getTargetContext();
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final SunBabyDrawable drawable = new SunBabyDrawable(context);
+                drawable.setReducedMotion(SunBabyLoadingView.REDUCED_MOTION_NONE);
+                drawable.setBounds(0, 0, SIZE, SIZE);
+
+                // 与其他 Animatable 一样，默认不播放
+                assertFalse(drawable.isRunning());
+                drawable.start();
+                assertEquals(0, drawable.getActiveDriverCount());
+
+                drawable.setCallback(callback);
+                drawable.setVisible(true, false);
+                assertEquals(1, drawable.getActiveDriverCount());
+
+                // 重复启动不会投递新的帧回调
+                drawable.start();
+                drawable.setVisible(true, false);
+                assertEquals(1, drawable.getActiveDriverCount());
+
+                drawable.setVisible(false, false);
+                assertEquals(0, drawable.getActiveDriverCount());
+                assertTrue(drawable.isRunning());
+
+                drawable.setVisible(true, false);
+                drawable.stop();
+                assertEquals(0, drawable.getActiveDriverCount());
+            }
+        });
+    }
+
+    public void testLevelDrivesProgress() {
+        final Context context = getInstrumentation().getTargetContext();
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final SunBabyDrawable drawable = new SunBabyDrawable(context);
+                assertFalse(drawable.setLevel(5000));
+
+                drawable.setIndeterminate(false);
+                drawable.setLevel(2500);
+                assertEquals(.25f, drawable.getProgress(), 1e-6f);
+            }
+        });
+    }
+
+    public void testBackgroundProgressRedrawsWhenStopped() {
+        final Context context = getInstrumentation().getTargetContext();
+        final SunBabyDrawable[] drawable = new SunBabyDrawable[1];
+        final int[] invalidations = new int[1];
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                drawable[0] = new SunBabyDrawable(context);
+                drawable[0].setCallback(new Drawable.Callback() {
+                    @Override
+                    public void invalidateDrawable(Drawable who) {
+                        invalidations[0]++;
+                    }
+
+                    @Override
+                    public void scheduleDrawable(Drawable who, Runnable what, long when) {
+                    }
+
+                    @Override
+                    public void unscheduleDrawable(Drawable who, Runnable what) {
+                    }
+                });
+                drawable[0].setBounds(0, 0, SIZE, SIZE);
+                drawable[0].setIndeterminate(false);
+                invalidations[0] = 0;
+            }
+        });
+
+        // 没有启动，不会有帧回调读取进度，后台线程设置的进度也要重绘出来
+        drawable[0].setProgress(.5f);
+        drawable[0].setProgress(1);
+        getInstrumentation().waitForIdleSync();
+
+        assertTrue(invalidations[0] > 0);
+        assertEquals(1, drawable[0].getProgress(), 1e-6f);
+    }
+
+    public void testEvictedAtlasIsReleased() {
+        final Context context = getInstrumentation().getTargetContext();
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final int budget = FrameAtlasCache.getMemoryBudget();
+                try {
+                    final SunBabyDrawable drawable = new SunBabyDrawable(context);
+                    drawable.setCallback(callback);
+                    drawable.setBakeAsync(false);
+                    drawable.setBounds(0, 0, SIZE, SIZE);
+                    drawable.setBaked(true);
+                    drawable.setCurrentPlayTime(1000);
+                    assertNotNull(drawable.getAtlas());
+
+                    // 正在显示的图集同样计入预算，被淘汰后下一帧不再持有
+                    SunBabyLoadingView.setAtlasMemoryBudget(0);
+                    drawable.setCurrentPlayTime(1100);
+                    assertNull(drawable.getAtlas());
+                } finally {
+                    SunBabyLoadingView.setAtlasMemoryBudget(budget);
+                }
+            }
+        });
+    }
+
+    public void testDefaultTextSizeFollowsFontScale() {
+        // createConfigurationContext 需要 Android 4.2
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR1) return;
+
+        final Context context = getInstrumentation().getTargetContext();
+        final Configuration configuration = new Configuration(context.getResources().getConfiguration());
+        configuration.fontScale = 1.5f;
+        final Context largeText = context.createConfigurationContext(configuration);
+        final DisplayMetrics metrics = largeText.getResources().getDisplayMetrics();
+
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final SunBabyDrawable drawable = new SunBabyDrawable(largeText);
+                // 与 sp 一样按 scaledDensity 换算，线宽等其他尺寸仍按 density 换算
+                assertEquals(SunBabyStyle.DEFAULT_TEXT_SIZE * metrics.scaledDensity / SunBabyModel.DESIGN_DENSITY,
+                        drawable.getStyle().getTextSize(), 1e-3f);
+                assertEquals(SunBabyModel.DEFAULT_LINE_STROKE_WIDTH * metrics.density / SunBabyModel.DESIGN_DENSITY,
+                        drawable.getStyle().getLineStrokeWidth(), 1e-3f);
+            }
+        });
+    }
+
+    public void testDirtyBoundsFollowDrawableBounds() {
+        final Context context = getInstrumentation().getTargetContext();
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final SunBabyDrawable drawable = new SunBabyDrawable(context);
+                drawable.setCallback(callback);
+                drawable.setBounds(100, 50, 100 + SIZE, 50 + SIZE);
+                drawable.setCurrentPlayTime(1000);
+
+                assertTrue(drawable.getBounds().contains(drawable.getDirtyBounds()));
+            }
+        });
+    }
+}
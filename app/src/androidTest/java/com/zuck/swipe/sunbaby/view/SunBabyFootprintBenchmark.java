@@ -0,0 +1,90 @@
+package com.zuck.swipe.sunbaby.view;
+
+import android.content.Context;
+import android.os.Debug;
+import android.test.InstrumentationTestCase;
+import android.util.Log;
+import android.view.View;
+
+import com.zuck.swipe.sunbaby.view.model.SunBabyTimeline;
+
+import java.util.Locale;
+
+/**
+ * 测量每个实例常驻的堆内存，以及播放一个完整循环期间主线程分配的对象数与字节数，结果输出到 logcat
+ */
+public class SunBabyFootprintBenchmark extends InstrumentationTestCase {
+
+    private static final String TAG = "SunBabyBenchmark";
+
+    private static final int VIEW_COUNT = 200;
+
+    private static final long FRAME_INTERVAL_NANOS = 16666667;
+
+    private static final int VIEW_SIZE = 240;
+
+    public void testRetainedHeapPerInstance() {
+        final Context context = getInstrumentation().getTargetContext();
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                // 预热，排除类加载与共享画笔等一次性开销
+                createView(context);
+
+                final SunBabyLoadingView[] views = new SunBabyLoadingView[VIEW_COUNT];
+                final long before = usedHeapAfterGc();
+                for (int i = 0; i < VIEW_COUNT; i++) {
+                    views[i] = createView(context);
+                }
+                final long after = usedHeapAfterGc();
+                assertNotNull(views[VIEW_COUNT - 1]);
+                Log.i(TAG, String.format(Locale.US, "retained=%.1f bytes per view", (double) (after - before) / VIEW_COUNT));
+            }
+        });
+    }
+
+    @SuppressWarnings("deprecation")
+    public void testAllocationsPerCycle() {
+        final Context context = getInstrumentation().getTargetContext();
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final SunBabyLoadingView view = createView(context);
+                final long frames = SunBabyTimeline.CYCLE_DURATION * 1000000 / FRAME_INTERVAL_NANOS;
+                playFrames(view, 0, frames);
+
+                Debug.resetThreadAllocCount();
+                Debug.resetThreadAllocSize();
+                Debug.startAllocCounting();
+                playFrames(view, frames, frames);
+                Debug.stopAllocCounting();
+                Log.i(TAG, String.format(Locale.US, "allocations per cycle: count=%d size=%d bytes",
+                        Debug.getThreadAllocCount(), Debug.getThreadAllocSize()));
+            }
+        });
+    }
+
+    private static SunBabyLoadingView createView(Context context) {
+        final SunBabyLoadingView view = new SunBabyLoadingView(context);
+        final int spec = View.MeasureSpec.makeMeasureSpec(VIEW_SIZE, View.MeasureSpec.EXACTLY);
+        view.measure(spec, spec);
+        view.layout(0, 0, VIEW_SIZE, VIEW_SIZE);
+        return view;
+    }
+
+    private static void playFrames(SunBabyLoadingView view, long firstFrame, long frames) {
+        for (long frame = firstFrame; frame < firstFrame + frames; frame++) {
+            view.getDrawable().frameCallback.doFrame(frame * FRAME_INTERVAL_NANOS);
+            view.getDrawable().removeFrameCallback();
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            runtime.gc();
+            runtime.runFinalization();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,41 @@
+package com.zuck.swipe.sunbaby.view;
+
+import android.test.ActivityInstrumentationTestCase2;
+import android.view.View;
+
+import com.zuck.swipe.sunbaby.MainActivity;
+import com.zuck.swipe.sunbaby.R;
+
+/**
+ * 反复布局不应创建新的动画驱动
+ */
+public class SunBabyLoadingViewLayoutTest extends ActivityInstrumentationTestCase2<MainActivity> {
+
+    private static final int LAYOUT_PASSES = 50;
+
+    public SunBabyLoadingViewLayoutTest() {
+        super(MainActivity.class);
+    }
+
+    public void testRepeatedLayoutKeepsSingleDriver() throws Throwable {
+        final SunBabyLoadingView view = (SunBabyLoadingView) getActivity().findViewById(R.id.sun_baby_loading_view);
+
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < LAYOUT_PASSES; i++) {
+                    // 交替改变尺寸，让每次布局都触发几何数据的重新计算
+                    final int size = 200 + (i % 2) * 40;
+                    final int spec = View.MeasureSpec.makeMeasureSpec(size, View.MeasureSpec.EXACTLY);
+                    view.measure(spec, spec);
+                    view.layout(0, 0, size, size);
+                    view.requestLayout();
+                }
+            }
+        });
+        getInstrumentation().waitForIdleSync();
+
+        assertTrue(view.isRunning());
+        assertEquals(1, view.getActiveDriverCount());
+    }
+}
@@ -0,0 +1,206 @@
+package com.zuck.swipe.sunbaby.view;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.test.InstrumentationTestCase;
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.View;
+
+import java.util.Locale;
+
+/**
+ * 对比每个实例各自注册帧回调、共享时钟以及相位同步三种方式下主线程的开销，结果输出到 logcat：
+ * <ul>
+ * <li>{@link #testPerFrameCpuTime()} 直接调用帧回调，只测量 onTick 的分发与计算，不包含 Choreographer 排队与分发回调的开销</li>
+ * <li>{@link #testVsyncCallbacks()} 由真实的垂直同步信号驱动，统计每个信号分发的帧回调数量以及主线程每帧的 CPU 时间</li>
+ * </ul>
+ */
+public class SunBabyTickerBenchmark extends InstrumentationTestCase {
+
+    private static final String TAG = "SunBabyBenchmark";
+
+    private static final int[] VIEW_COUNTS = {1, 10, 50, 200};
+
+    private static final int FRAMES = 300;
+
+    private static final long FRAME_INTERVAL_NANOS = 16666667;
+
+    private static final int VIEW_SIZE = 240;
+
+    /**
+     * 真实垂直同步信号下每种方式播放的时长
+     */
+    private static final long VSYNC_MEASURE_MILLIS = 2000;
+
+    private static final Drawable.Callback NO_HOST = new Drawable.Callback() {
+        @Override
+        public void invalidateDrawable(Drawable who) {
+        }
+
+        @Override
+        public void scheduleDrawable(Drawable who, Runnable what, long when) {
+        }
+
+        @Override
+        public void unscheduleDrawable(Drawable who, Runnable what) {
+        }
+    };
+
+    public void testPerFrameCpuTime() {
+        final Context context = getInstrumentation().getTargetContext();
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                for (int count : VIEW_COUNTS) {
+                    final SunBabyLoadingView[] views = createViews(context, count);
+                    final long ownNanos = measureOwnCallbacks(views);
+                    final long sharedNanos = measureSharedTicker(views);
+                    final long syncedNanos = measureSynchronized(views);
+                    Log.i(TAG, String.format(Locale.US, "views=%d own=%.1fus shared=%.1fus synced=%.1fus per frame, %d computed",
+                            count, ownNanos / 1000.0 / FRAMES, sharedNanos / 1000.0 / FRAMES, syncedNanos / 1000.0 / FRAMES,
+                            SunBabyTicker.getInstance().getFrameComputeCount()));
+                }
+            }
+        });
+    }
+
+    public void testVsyncCallbacks() {
+        final Context context = getInstrumentation().getTargetContext();
+        for (int count : VIEW_COUNTS) {
+            final VsyncResult own = measureVsync(context, count, false);
+            final VsyncResult shared = measureVsync(context, count, true);
+            Log.i(TAG, String.format(Locale.US,
+                    "views=%d own: %d callbacks/vsync %.1fus per frame, shared: %d callbacks/vsync %.1fus per frame",
+                    count, own.callbacksPerVsync, own.cpuNanosPerFrame / 1000.0,
+                    shared.callbacksPerVsync, shared.cpuNanosPerFrame / 1000.0));
+            assertEquals(count, own.callbacksPerVsync);
+            assertEquals(1, shared.callbacksPerVsync);
+        }
+    }
+
+    private static final class VsyncResult {
+        int callbacksPerVsync;
+        long cpuNanosPerFrame;
+    }
+
+    /**
+     * 启动 count 个没有宿主 View 的 Drawable，由 Choreographer 播放一段时间，
+     * 期间主线程的 CPU 时间包含了每个帧回调的排队与分发
+     */
+    private VsyncResult measureVsync(final Context context, final int count, final boolean sharedTicker) {
+        final SunBabyDrawable[] drawables = new SunBabyDrawable[count];
+        final long[] cpuStart = new long[1];
+        final int[] frames = new int[1];
+        final Choreographer.FrameCallback frameCounter = new Choreographer.FrameCallback() {
+            @Override
+            public void doFrame(long frameTimeNanos) {
+                frames[0]++;
+                Choreographer.getInstance().postFrameCallback(this);
+            }
+        };
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < count; i++) {
+                    drawables[i] = new SunBabyDrawable(context);
+                    drawables[i].setReducedMotion(SunBabyLoadingView.REDUCED_MOTION_NONE);
+                    // 每个垂直同步信号都分发，不因画面移动不足一个像素而延后
+                    drawables[i].setAutoLowPower(false);
+                    drawables[i].setUseSharedTicker(sharedTicker);
+                    drawables[i].setBounds(0, 0, VIEW_SIZE, VIEW_SIZE);
+                    drawables[i].setCallback(NO_HOST);
+                    drawables[i].setVisible(true, false);
+                    drawables[i].start();
+                }
+                Choreographer.getInstance().postFrameCallback(frameCounter);
+                cpuStart[0] = Debug.threadCpuTimeNanos();
+            }
+        });
+
+        SystemClock.sleep(VSYNC_MEASURE_MILLIS);
+
+        final VsyncResult result = new VsyncResult();
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final long cpuNanos = Debug.threadCpuTimeNanos() - cpuStart[0];
+                // 不在帧回调中，已投递的回调数量即为下一个垂直同步信号要分发的数量
+                result.callbacksPerVsync = SunBabyDrawable.getLiveDriverCount();
+                result.cpuNanosPerFrame = cpuNanos / Math.max(1, frames[0]);
+
+                Choreographer.getInstance().removeFrameCallback(frameCounter);
+                for (SunBabyDrawable drawable : drawables) {
+                    drawable.stop();
+                }
+            }
+        });
+        return result;
+    }
+
+    private static SunBabyLoadingView[] createViews(Context context, int count) {
+        final SunBabyLoadingView[] views = new SunBabyLoadingView[count];
+        final int spec = View.MeasureSpec.makeMeasureSpec(VIEW_SIZE, View.MeasureSpec.EXACTLY);
+        for (int i = 0; i < count; i++) {
+            views[i] = new SunBabyLoadingView(context);
+            views[i].measure(spec, spec);
+            views[i].layout(0, 0, VIEW_SIZE, VIEW_SIZE);
+        }
+        return views;
+    }
+
+    private static long measureOwnCallbacks(SunBabyLoadingView[] views) {
+        long total = 0;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            final long frameTimeNanos = frame * FRAME_INTERVAL_NANOS;
+            final long start = Debug.threadCpuTimeNanos();
+            for (SunBabyLoadingView view : views) {
+                view.getDrawable().frameCallback.doFrame(frameTimeNanos);
+            }
+            total += Debug.threadCpuTimeNanos() - start;
+
+            for (SunBabyLoadingView view : views) {
+                view.getDrawable().removeFrameCallback();
+            }
+        }
+        return total;
+    }
+
+    private static long measureSharedTicker(SunBabyLoadingView[] views) {
+        final SunBabyTicker ticker = SunBabyTicker.getInstance();
+        for (SunBabyLoadingView view : views) {
+            ticker.register(view.getDrawable());
+        }
+
+        long total = 0;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            final long frameTimeNanos = frame * FRAME_INTERVAL_NANOS;
+            final long start = Debug.threadCpuTimeNanos();
+            ticker.doFrame(frameTimeNanos);
+            total += Debug.threadCpuTimeNanos() - start;
+        }
+
+        for (SunBabyLoadingView view : views) {
+            ticker.unregister(view.getDrawable());
+        }
+        return total;
+    }
+
+    /**
+     * 相位同步时尺寸相同的View共用每帧计算出的画面
+     */
+    private static long measureSynchronized(SunBabyLoadingView[] views) {
+        for (SunBabyLoadingView view : views) {
+            view.setUseSharedTicker(true);
+            view.setPhaseLocked(true);
+        }
+        final long total = measureSharedTicker(views);
+        for (SunBabyLoadingView view : views) {
+            view.setPhaseLocked(false);
+            view.setUseSharedTicker(false);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,136 @@
+package com.zuck.swipe.sunbaby.view;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+
+import com.zuck.swipe.sunbaby.view.model.SunBabyModel;
+import com.zuck.swipe.sunbaby.view.model.SunFrame;
+
+/**
+ * 预先渲染好的一个完整升起落下循环的帧图集。
+ * <p>
+ * 每帧只保存会变化的部分（太阳圆弧、眼睛与光芒），裁剪到整个循环的包围盒内。
+ * 由于这些内容只有一种颜色，帧使用 {@link Bitmap.Config#ALPHA_8} 格式保存，绘制时由画笔提供颜色。
+ * <p>
+ * 光芒每隔 {@link SunBabyModel#getRaySeparationAngle()} 度重复一次，为了让循环首尾相接，
+ * 图集中每个循环内阳光旋转的角度取最接近实际转速的该角度整数倍。
+ */
+final class FrameAtlas {
+
+    private final Bitmap[] frames;
+
+    private final int frameRate;
+
+    private final long cycleDuration;
+
+    /**
+     * 帧在View中对应的区域
+     */
+    private final RectF bounds;
+
+    private final int byteCount;
+
+    private FrameAtlas(Bitmap[] frames, int frameRate, long cycleDuration, RectF bounds) {
+        this.frames = frames;
+        this.frameRate = frameRate;
+        this.cycleDuration = cycleDuration;
+        this.bounds = bounds;
+
+        int bytes = 0;
+        for (Bitmap frame : frames) {
+            bytes += frame.getRowBytes() * frame.getHeight();
+        }
+        this.byteCount = bytes;
+    }
+
+    /**
+     * 播放时间对应的帧序号
+     */
+    int getFrameIndex(long playTime) {
+        return (int) ((playTime % cycleDuration) * frameRate / 1000);
+    }
+
+    RectF getBounds() {
+        return bounds;
+    }
+
+    int getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * 绘制第 index 帧，paint 提供颜色
+     */
+    void draw(Canvas canvas, int index, Paint paint) {
+        canvas.drawBitmap(frames[index], null, bounds, paint);
+    }
+
+    /**
+     * 一个循环需要的帧数
+     */
+    static int getFrameCount(long cycleDuration, int frameRate) {
+        return (int) ((cycleDuration * frameRate + 999) / 1000);
+    }
+
+    /**
+     * 渲染整个循环的帧图集，耗时较长，可以在后台线程调用
+     * @param width View的宽
+     * @param height View的高
+     * @param scale 设计尺寸到像素的缩放比例
+     * @param style 样式，只有线宽、光芒数量与动画时长会影响图集
+     * @param frameRate 每秒的帧数
+     * @param resolution 帧的分辨率与View分辨率的比例
+     * @param maxBytes 图集最多占用的内存，超出时降低分辨率
+     * @return 帧图集；内存预算内无法容纳时返回 null
+     */
+    static FrameAtlas bake(int width, int height, float scale, SunBabyStyle style, int frameRate, float resolution, int maxBytes) {
+        final SunBabyRenderer renderer = new SunBabyRenderer();
+        renderer.getModel().setScale(scale);
+        renderer.setStyle(style);
+        renderer.setSize(width, height);
+        final SunBabyModel model = renderer.getModel();
+
+        final int frameCount = getFrameCount(model.getCycleDuration(), frameRate);
+        final SunFrame frame = model.newFrame();
+
+        // 先求出整个循环的包围盒
+        final RectF bounds = new RectF();
+        final RectF frameBounds = new RectF();
+        for (int i = 0; i < frameCount; i++) {
+            evaluate(model, i, frameRate, frame);
+            SunBabyRenderer.getDirtyBounds(frame, frameBounds);
+            bounds.union(frameBounds);
+        }
+        if (bounds.isEmpty()) return null;
+
+        // 超出内存预算时按比例降低分辨率
+        final long rowBytes = ((long) Math.ceil(bounds.width() * resolution) + 3) & ~3;
+        final long fullBytes = rowBytes * (long) Math.ceil(bounds.height() * resolution) * frameCount;
+        if (fullBytes > maxBytes) {
+            resolution *= (float) Math.sqrt((double) maxBytes / fullBytes);
+        }
+        final int frameWidth = (int) Math.floor(bounds.width() * resolution);
+        final int frameHeight = (int) Math.floor(bounds.height() * resolution);
+        if (frameWidth <= 0 || frameHeight <= 0) return null;
+
+        final Bitmap[] frames = new Bitmap[frameCount];
+        for (int i = 0; i < frameCount; i++) {
+            evaluate(model, i, frameRate, frame);
+
+            final Bitmap bitmap = Bitmap.createBitmap(frameWidth, frameHeight, Bitmap.Config.ALPHA_8);
+            final Canvas canvas = new Canvas(bitmap);
+            canvas.scale(frameWidth / bounds.width(), frameHeight / bounds.height());
+            canvas.translate(-bounds.left, -bounds.top);
+            renderer.drawSun(canvas, frame);
+            frames[i] = bitmap;
+        }
+        return new FrameAtlas(frames, frameRate, model.getCycleDuration(), bounds);
+    }
+
+    private static void evaluate(SunBabyModel model, int index, int frameRate, SunFrame out) {
+        model.loopFrameAt(index * 1000L / frameRate, out);
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.zuck.swipe.sunbaby.view;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 进程内共享的帧图集缓存，尺寸与烘焙参数相同的View共用同一份图集。
+ * <p>
+ * 按最近最少使用的顺序淘汰，总内存不超过预算。使用中的 View 每帧都通过 {@link #get(String)} 取得图集，
+ * 因此正在显示的图集总是最近使用的；被淘汰的图集在下一帧就不再被任何 View 引用，预算对它们同样有效。
+ * 所有方法都只能在主线程调用，烘焙可以放到后台线程执行。
+ */
+final class FrameAtlasCache {
+
+    /**
+     * 默认的内存预算
+     */
+    static final int DEFAULT_MEMORY_BUDGET = 16 * 1024 * 1024;
+
+    private static int memoryBudget = DEFAULT_MEMORY_BUDGET;
+
+    private static int totalBytes;
+
+    private static final LinkedHashMap<String, FrameAtlas> atlases = new LinkedHashMap<>(8, .75f, true);
+
+    /**
+     * 正在烘焙的图集
+     */
+    private static final Set<String> pending = new HashSet<>();
+
+    /**
+     * 内存预算内无法容纳的图集，不再重复烘焙
+     */
+    private static final Set<String> unavailable = new HashSet<>();
+
+    private static ExecutorService executor;
+
+    private static Handler mainHandler;
+
+    private FrameAtlasCache() {
+    }
+
+    static String key(int width, int height, float scale, SunBabyStyle style, int frameRate, float resolution) {
+        return width + "x" + height + "*" + scale + "@" + frameRate + "/" + resolution + "#" + style.getGeometryKey();
+    }
+
+    /**
+     * 取得图集并记为最近使用，View 每帧调用一次，不能在帧与帧之间持有返回值
+     * @return 已烘焙好的图集；尚未烘焙、无法烘焙或已被淘汰时返回 null
+     */
+    static FrameAtlas get(String key) {
+        return atlases.get(key);
+    }
+
+    /**
+     * 图集是否因超出内存预算而无法使用
+     */
+    static boolean isUnavailable(String key) {
+        return unavailable.contains(key);
+    }
+
+    /**
+     * 请求烘焙图集，已存在或正在烘焙时忽略
+     * @param async 为 true 时在后台线程烘焙，完成前 {@link #get(String)} 返回 null
+     */
+    static void request(final String key, final int width, final int height, final float scale,
+                        final SunBabyStyle style, final int frameRate, final float resolution, boolean async) {
+        if (atlases.containsKey(key) || pending.contains(key) || unavailable.contains(key)) return;
+
+        if (!async) {
+            put(key, FrameAtlas.bake(width, height, scale, style, frameRate, resolution, memoryBudget));
+            return;
+        }
+
+        pending.add(key);
+        final int budget = memoryBudget;
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                final FrameAtlas atlas = FrameAtlas.bake(width, height, scale, style, frameRate, resolution, budget);
+                getMainHandler().post(new Runnable() {
+                    @Override
+                    public void run() {
+                        pending.remove(key);
+                        put(key, atlas);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 设置所有图集共用的内存预算，超出的图集立即按最近最少使用的顺序淘汰
+     */
+    static void setMemoryBudget(int bytes) {
+        memoryBudget = bytes;
+        unavailable.clear();
+        trimToBudget();
+    }
+
+    static int getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    private static void put(String key, FrameAtlas atlas) {
+        if (atlas == null || atlas.getByteCount() > memoryBudget) {
+            unavailable.add(key);
+            return;
+        }
+        atlases.put(key, atlas);
+        totalBytes += atlas.getByteCount();
+        trimToBudget();
+    }
+
+    private static void trimToBudget() {
+        final Iterator<Map.Entry<String, FrameAtlas>> iterator = atlases.entrySet().iterator();
+        while (totalBytes > memoryBudget && iterator.hasNext()) {
+            totalBytes -= iterator.next().getValue().getByteCount();
+            iterator.remove();
+        }
+    }
+
+    private static ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "SunBabyAtlas");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }
+            });
+        }
+        return executor;
+    }
+
+    private static Handler getMainHandler() {
+        if (mainHandler == null) {
+            mainHandler = new Handler(Looper.getMainLooper());
+        }
+        return mainHandler;
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.zuck.swipe.sunbaby.view;
+
+import java.util.Arrays;
+
+/**
+ * 固定容量的环形缓冲区，保存最近的若干个耗时样本并计算分位数。
+ * <p>
+ * 记录样本与计算分位数都不分配对象，可以在每帧调用。
+ */
+public final class FrameTimeHistogram {
+
+    private final long[] samples;
+
+    /**
+     * 计算分位数时用于排序的副本，避免打乱样本的顺序
+     */
+    private final long[] sorted;
+
+    private int next;
+
+    private int count;
+
+    /**
+     * @param capacity 保留的样本数量
+     */
+    public FrameTimeHistogram(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        samples = new long[capacity];
+        sorted = new long[capacity];
+    }
+
+    /**
+     * 记录一个样本，缓冲区已满时覆盖最早的样本
+     */
+    public void record(long value) {
+        samples[next] = value;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) count++;
+    }
+
+    /**
+     * 当前保留的样本数量
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return samples.length;
+    }
+
+    /**
+     * 按最近秩法计算分位数
+     * @param percentile 取值 [0, 100]，例如 95 表示 p95
+     * @return 分位数对应的样本值，没有样本时返回 0
+     */
+    public long getPercentile(float percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in [0, 100]: " + percentile);
+        }
+        if (count == 0) return 0;
+
+        System.arraycopy(samples, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        final int rank = (int) Math.ceil(percentile / 100 * count);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * 最近样本中的最大值
+     */
+    public long getMax() {
+        long max = 0;
+        for (int i = 0; i < count; i++) {
+            max = Math.max(max, samples[i]);
+        }
+        return max;
+    }
+
+    public void clear() {
+        next = 0;
+        count = 0;
+    }
+
+}
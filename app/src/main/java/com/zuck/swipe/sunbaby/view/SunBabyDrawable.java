@@ -0,0 +1,1083 @@
+package com.zuck.swipe.sunbaby.view;
+
+import android.content.BroadcastReceiver;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.res.TypedArray;
+import android.database.ContentObserver;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.drawable.Animatable;
+import android.graphics.drawable.Drawable;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.PowerManager;
+import android.provider.Settings;
+import android.support.annotation.NonNull;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+import android.view.Choreographer;
+import android.view.WindowManager;
+
+import com.zuck.swipe.sunbaby.R;
+import com.zuck.swipe.sunbaby.view.model.FramePacer;
+import com.zuck.swipe.sunbaby.view.model.MotionPolicy;
+import com.zuck.swipe.sunbaby.view.model.ProgressSmoother;
+import com.zuck.swipe.sunbaby.view.model.SunBabyModel;
+import com.zuck.swipe.sunbaby.view.model.SunFrame;
+
+/**
+ * 太阳宝宝的 Drawable：包含全部的播放与绘制逻辑，{@link SunBabyLoadingView} 只负责测量并把生命周期转发给它。
+ * <p>
+ * 可以直接放进 ImageView、ProgressBar（indeterminateDrawable，或者按 level 显示进度的 progressDrawable）或 Toolbar，
+ * 没有测量与布局的开销；RecyclerView 中可以在绑定时复用同一个实例，只需重新设置进度或播放时间。
+ * <p>
+ * 与其他 {@link Animatable} 一样，调用 {@link #start()} 后才会播放；只有可见（{@link #setVisible(boolean, boolean)}）
+ * 并且设置了 Callback 时才注册帧回调以及省电模式、动画时长缩放的监听，宿主隐藏或移除它后自动暂停。
+ * <p>
+ * 不绘制背景，背景色 {@link SunBabyStyle#getBackgroundColor()} 由宿主负责。
+ * 除 {@link #setProgress(float)} 之外的方法只能在主线程调用。
+ */
+public class SunBabyDrawable extends Drawable implements Animatable {
+
+    /**
+     * 默认宽高
+     */
+    private static final int DEFAULT_DIAMETER_SIZE = 120;
+
+    /**
+     * 烘焙模式默认的帧率
+     */
+    static final int DEFAULT_BAKED_FRAME_RATE = 30;
+
+    /**
+     * 省电模式下的帧率上限
+     */
+    private static final int LOW_POWER_FRAME_RATE = 30;
+
+    /**
+     * 自动省电时，画面移动不足该距离（像素）的帧不重绘
+     */
+    private static final float MIN_VISIBLE_MOTION = 1;
+
+    /**
+     * 进程内所有实例已投递、尚未执行的独立帧回调数量
+     */
+    private static int ownDriverCount;
+
+    /**
+     * 注册系统监听使用的 Context，取 Application，不持有宿主的 Activity
+     */
+    private final Context context;
+
+    private final int intrinsicSize;
+
+    private final SunBabyRenderer renderer = new SunBabyRenderer();
+
+    /**
+     * 当前帧与上一帧中会变化的内容（太阳圆弧、光芒、眼睛）的包围盒，只重绘两者的并集
+     */
+    private final RectF dirtyBounds = new RectF(), lastDirtyBounds = new RectF();
+
+    /**
+     * 需要重绘的区域，已偏移到 Drawable 的边界，由 {@link #getDirtyBounds()} 返回给宿主
+     */
+    private final Rect invalidateRect = new Rect();
+
+    /**
+     * 是否播放预先烘焙好的帧图集，而不是每帧重新计算并绘制图形
+     */
+    private boolean baked;
+
+    private boolean bakeAsync = true;
+
+    private int bakedFrameRate = DEFAULT_BAKED_FRAME_RATE;
+
+    /**
+     * 图集中每帧的分辨率与 Drawable 分辨率的比例
+     */
+    private float bakedResolution = 1;
+
+    /**
+     * 当前尺寸对应的图集，烘焙完成前为 null
+     */
+    private String atlasKey;
+
+    private FrameAtlas atlas;
+
+    private int atlasFrameIndex = -1;
+
+    /**
+     * 当前绘制的帧，光芒数量变化时重新创建
+     */
+    private SunFrame frame;
+
+    /**
+     * 新计算出的帧，确认需要重绘后与 {@link #frame} 交换
+     */
+    private SunFrame pendingFrame;
+
+    private final FramePacer framePacer;
+
+    /**
+     * 是否自动省电：系统开启省电模式时降低帧率，画面移动不足一个像素时不重绘
+     */
+    private boolean autoLowPower = true;
+
+    private BroadcastReceiver powerSaveReceiver;
+
+    /**
+     * 系统是否处于省电模式，只在自动省电时更新
+     */
+    private boolean powerSave;
+
+    /**
+     * 根据系统的动画时长缩放比例决定如何播放
+     */
+    private final MotionPolicy motionPolicy = new MotionPolicy();
+
+    private ContentObserver durationScaleObserver;
+
+    /**
+     * 当前的播放时间，暂停后从这里继续播放
+     */
+    private long playTime;
+
+    /**
+     * 播放时间为 0 时对应的帧时间，-1 表示等待下一帧重新对齐
+     */
+    private long startTimeNanos = -1;
+
+    /**
+     * 宿主是否启动了动画
+     */
+    private boolean started;
+
+    /**
+     * 是否启动、可见并且有宿主，只有这时才监听系统设置
+     */
+    private boolean active;
+
+    /**
+     * 是否已注册帧回调，只有在激活且画面需要更新时才会注册
+     */
+    private boolean ticking;
+
+    /**
+     * 是否由进程内共享的 {@link SunBabyTicker} 驱动，而不是注册自己的帧回调
+     */
+    private boolean useSharedTicker;
+
+    /**
+     * 使用共享时钟时，是否与其他实例保持相同的相位
+     */
+    private boolean phaseLocked;
+
+    /**
+     * 相位同步时在共享时钟的帧缓存中使用的键，尺寸为 0 时为 null
+     */
+    private String sharedFrameKey;
+
+    /**
+     * 本实例已投递、尚未执行的帧回调数量，正常情况下播放时为 1，停止时为 0
+     */
+    private int pendingFrameCallbacks;
+
+    final Choreographer.FrameCallback frameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            pendingFrameCallbacks--;
+            ownDriverCount--;
+
+            onTick(frameTimeNanos);
+            // 宿主已被回收，onTick 中已停止播放
+            if (!ticking) return;
+
+            // 直到下一次需要绘制之前的垂直同步信号都不必唤醒
+            postFrameCallback(framePacer.getNextFrameDelayMillis(frameTimeNanos));
+        }
+    };
+
+    /**
+     * 是否为不确定进度模式（循环升起落下），否则太阳高度由进度决定
+     */
+    private boolean indeterminate = true;
+
+    /**
+     * 最新的目标进度，可以在任意线程写入，下一帧读取
+     */
+    private volatile float progress;
+
+    /**
+     * 动画停止时，其他线程设置的进度通过它转到主线程生效
+     */
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * 是否已经向主线程投递了 {@link #applyProgress}，尚未执行前不再重复投递
+     */
+    private volatile boolean progressPosted;
+
+    private final Runnable applyProgress = new Runnable() {
+        @Override
+        public void run() {
+            progressPosted = false;
+            applyStoppedProgress();
+        }
+    };
+
+    private final ProgressSmoother progressSmoother = new ProgressSmoother();
+
+    /**
+     * 帧耗时统计，未开启时为 null，不产生任何开销
+     */
+    private SunBabyFrameMetrics metrics;
+
+    private int alpha = 255;
+
+    private ColorFilter colorFilter;
+
+    /**
+     * 设置了透明度或颜色过滤时合成图层使用的画笔，共用的画笔不能修改
+     */
+    private Paint layerPaint;
+
+    /**
+     * 使用主题中的样式属性与当前屏幕密度创建
+     */
+    public SunBabyDrawable(@NonNull Context context) {
+        this(context, readThemeStyle(context));
+    }
+
+    /**
+     * @param style 样式，其中的尺寸以像素为单位
+     */
+    public SunBabyDrawable(@NonNull Context context, @NonNull SunBabyStyle style) {
+        final Context applicationContext = context.getApplicationContext();
+        this.context = applicationContext != null ? applicationContext : context;
+
+        // 使用传入的 Context 自身的资源，与显示缩放等情况下的实际密度一致
+        final DisplayMetrics displayMetrics = context.getResources().getDisplayMetrics();
+        intrinsicSize = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, DEFAULT_DIAMETER_SIZE, displayMetrics);
+        framePacer = new FramePacer(readFrameIntervalNanos(this.context));
+        motionPolicy.setDurationScale(readDurationScale(this.context));
+
+        renderer.getModel().setScale(getScale(context));
+        renderer.setStyle(style);
+        frame = renderer.getModel().newFrame();
+        pendingFrame = renderer.getModel().newFrame();
+    }
+
+    /**
+     * 设计尺寸到像素的缩放比例
+     */
+    static float getScale(Context context) {
+        return context.getResources().getDisplayMetrics().density / SunBabyModel.DESIGN_DENSITY;
+    }
+
+    /**
+     * 设计尺寸中的文字大小到像素的缩放比例，与 sp 一样包含系统的字体大小设置
+     */
+    static float getTextScale(Context context) {
+        return context.getResources().getDisplayMetrics().scaledDensity / SunBabyModel.DESIGN_DENSITY;
+    }
+
+    private static SunBabyStyle readThemeStyle(Context context) {
+        final TypedArray a = context.obtainStyledAttributes(null, R.styleable.SunBabyLoadingView);
+        final SunBabyStyle style = SunBabyLoadingView.readStyle(a, getScale(context), getTextScale(context));
+        a.recycle();
+        return style;
+    }
+
+    /**
+     * 读取系统的动画时长缩放比例，Android 4.2 之前的版本保存在 Settings.System 中
+     */
+    @SuppressWarnings("deprecation")
+    static float readDurationScale(Context context) {
+        final ContentResolver resolver = context.getContentResolver();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            return Settings.Global.getFloat(resolver, Settings.Global.ANIMATOR_DURATION_SCALE, 1);
+        }
+        return Settings.System.getFloat(resolver, Settings.System.ANIMATOR_DURATION_SCALE, 1);
+    }
+
+    /**
+     * 动画时长缩放比例对应的设置项，用于监听变化
+     */
+    @SuppressWarnings("deprecation")
+    private static Uri getDurationScaleUri() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1
+                ? Settings.Global.getUriFor(Settings.Global.ANIMATOR_DURATION_SCALE)
+                : Settings.System.getUriFor(Settings.System.ANIMATOR_DURATION_SCALE);
+    }
+
+    private static long readFrameIntervalNanos(Context context) {
+        float refreshRate = 60;
+        final WindowManager windowManager = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
+        if (windowManager != null && windowManager.getDefaultDisplay().getRefreshRate() >= 1) {
+            refreshRate = windowManager.getDefaultDisplay().getRefreshRate();
+        }
+        return (long) (1000000000L / refreshRate);
+    }
+
+    /**
+     * 切换样式，只重新计算受影响的几何数据
+     */
+    public void setStyle(@NonNull SunBabyStyle style) {
+        final SunBabyStyle old = renderer.getStyle();
+        if (old.equals(style)) return;
+
+        renderer.setStyle(style);
+        if (old.getRayCount() != style.getRayCount()) {
+            frame = renderer.getModel().newFrame();
+            pendingFrame = renderer.getModel().newFrame();
+        }
+        if (!old.hasSameGeometry(style)) {
+            updateSharedFrameKey();
+            updateAtlas();
+        }
+
+        lastDirtyBounds.setEmpty();
+        applyPlayTime(playTime);
+        invalidateAll();
+    }
+
+    @NonNull
+    public SunBabyStyle getStyle() {
+        return renderer.getStyle();
+    }
+
+    /**
+     * 设置是否播放预先烘焙好的帧图集。图集按尺寸与烘焙参数在所有实例间共享，烘焙完成前或被淘汰后实时绘制。
+     * <p>
+     * 图集只包含一个循环，光芒每个循环旋转光芒间隔的整数倍（默认 90 度，不烘焙时为 88.5 度）；
+     * 烘焙模式下实时绘制的画面按同样的角度旋转，图集就绪或被淘汰时光芒不会跳动
+     */
+    public void setBaked(boolean baked) {
+        this.baked = baked;
+        updateAtlas();
+    }
+
+    public boolean isBaked() {
+        return baked;
+    }
+
+    /**
+     * 设置烘焙帧图集的帧率
+     */
+    public void setBakedFrameRate(int frameRate) {
+        if (frameRate <= 0) {
+            throw new IllegalArgumentException("Frame rate must be positive: " + frameRate);
+        }
+        bakedFrameRate = frameRate;
+        updateAtlas();
+    }
+
+    /**
+     * 设置烘焙帧图集的分辨率，取值 (0, 1]，1 表示与 Drawable 的分辨率相同
+     */
+    public void setBakedResolution(float resolution) {
+        if (resolution <= 0 || resolution > 1) {
+            throw new IllegalArgumentException("Resolution must be in (0, 1]: " + resolution);
+        }
+        bakedResolution = resolution;
+        updateAtlas();
+    }
+
+    /**
+     * 设置是否在后台线程烘焙帧图集
+     */
+    public void setBakeAsync(boolean async) {
+        bakeAsync = async;
+    }
+
+    /**
+     * 设置是否由进程内共享的时钟驱动。同屏有大量实例时，共享时钟每帧只分发一次回调
+     */
+    public void setUseSharedTicker(boolean useSharedTicker) {
+        if (this.useSharedTicker == useSharedTicker) return;
+
+        setTicking(false);
+        this.useSharedTicker = useSharedTicker;
+        updateTicking();
+    }
+
+    public boolean isUseSharedTicker() {
+        return useSharedTicker;
+    }
+
+    /**
+     * 设置是否与其他实例保持相同的相位，只在使用共享时钟时生效。
+     * <p>
+     * 相位同步的实例都从共享时钟的起点计算播放时间，中途显示的实例直接加入当前的相位；
+     * 尺寸与样式几何参数相同的实例每帧只计算一次画面（光芒、圆弧与眨眼状态），其余实例直接复用
+     */
+    public void setPhaseLocked(boolean phaseLocked) {
+        this.phaseLocked = phaseLocked;
+        startTimeNanos = -1;
+    }
+
+    public boolean isPhaseLocked() {
+        return phaseLocked;
+    }
+
+    /**
+     * 设置是否为不确定进度模式。关闭后太阳的高度与圆弧由 {@link #setProgress(float)} 决定，
+     * 光芒旋转与眨眼动画照常播放；进度模式下不使用烘焙的帧图集
+     */
+    public void setIndeterminate(boolean indeterminate) {
+        if (this.indeterminate == indeterminate) return;
+
+        this.indeterminate = indeterminate;
+        progressSmoother.snapTo(progress);
+        atlasFrameIndex = -1;
+        lastDirtyBounds.setEmpty();
+        applyPlayTime(playTime);
+        invalidateAll();
+        // 减弱动态模式下，只有进度模式需要帧回调读取新的进度
+        updateTicking();
+    }
+
+    public boolean isIndeterminate() {
+        return indeterminate;
+    }
+
+    /**
+     * 设置进度，只在进度模式下生效。
+     * <p>
+     * 可以在任意线程频繁调用：只记录最新的值，不分配对象也不立即重绘，
+     * 由下一帧统一读取并平滑过渡，每帧最多重绘一次。动画停止时直接跳到该进度并重绘，
+     * 其他线程的调用转到主线程执行，尚未执行前的多次调用只重绘一次。
+     * @param progress 进度，取值 [0, 1]
+     */
+    public void setProgress(float progress) {
+        this.progress = Math.max(0, Math.min(1, progress));
+
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            applyStoppedProgress();
+        } else if (!progressPosted) {
+            progressPosted = true;
+            mainHandler.post(applyProgress);
+        }
+    }
+
+    /**
+     * 没有帧回调读取进度时，立即应用最新的进度，只能在主线程调用
+     */
+    private void applyStoppedProgress() {
+        if (ticking || indeterminate) return;
+
+        progressSmoother.snapTo(progress);
+        applyPlayTime(playTime);
+    }
+
+    public float getProgress() {
+        return progress;
+    }
+
+    /**
+     * ProgressBar 通过 level（0 到 10000）传递进度，进度模式下直接作为太阳的高度
+     */
+    @Override
+    protected boolean onLevelChange(int level) {
+        if (indeterminate) return false;
+
+        setProgress(level / 10000f);
+        return true;
+    }
+
+    /**
+     * 设置目标帧率，跳过的帧不会绘制，但动画仍然按实际时间播放
+     * @param frameRate 每秒的帧数，{@link FramePacer#FRAME_RATE_NATIVE} 表示与屏幕刷新率相同
+     */
+    public void setTargetFrameRate(int frameRate) {
+        framePacer.setTargetFrameRate(frameRate);
+        onFrameIntervalChanged();
+    }
+
+    public int getTargetFrameRate() {
+        return framePacer.getTargetFrameRate();
+    }
+
+    /**
+     * 设置是否自动省电：系统开启省电模式时帧率不超过 30，画面移动不足一个像素的帧不重绘，并逐步延长帧回调的间隔
+     */
+    public void setAutoLowPower(boolean autoLowPower) {
+        if (this.autoLowPower == autoLowPower) return;
+
+        this.autoLowPower = autoLowPower;
+        if (!autoLowPower) {
+            framePacer.onFrameResult(true);
+        }
+        if (active) {
+            setPowerSaveReceiverRegistered(autoLowPower);
+        }
+        updatePowerSaveMode();
+    }
+
+    public boolean isAutoLowPower() {
+        return autoLowPower;
+    }
+
+    /**
+     * 根据系统的省电模式设置帧率上限
+     */
+    private void updatePowerSaveMode() {
+        powerSave = false;
+        if (autoLowPower && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            final PowerManager powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+            powerSave = powerManager != null && powerManager.isPowerSaveMode();
+        }
+        updateFrameRateCap();
+    }
+
+    /**
+     * 省电模式与减弱动态模式的帧率上限取较低者
+     */
+    private void updateFrameRateCap() {
+        int cap = motionPolicy.getFrameRateCap();
+        if (powerSave && (cap == FramePacer.FRAME_RATE_NATIVE || cap > LOW_POWER_FRAME_RATE)) {
+            cap = LOW_POWER_FRAME_RATE;
+        }
+        framePacer.setFrameRateCap(cap);
+        onFrameIntervalChanged();
+    }
+
+    /**
+     * 设置系统关闭动画（开发者选项中的动画时长缩放为 0，或无障碍设置中移除动画）时的画面。
+     * 缩放比例不为 0 时，动画按比例放慢或加快播放
+     * @param mode {@link MotionPolicy#REDUCED_MOTION_NONE}、{@link MotionPolicy#REDUCED_MOTION_STATIC}
+     *             或 {@link MotionPolicy#REDUCED_MOTION_PULSE}
+     */
+    public void setReducedMotion(int mode) {
+        if (motionPolicy.getReducedMotion() == mode) return;
+
+        motionPolicy.setReducedMotion(mode);
+        onMotionPolicyChanged();
+    }
+
+    public int getReducedMotion() {
+        return motionPolicy.getReducedMotion();
+    }
+
+    /**
+     * 当前是否因系统关闭动画而显示静止或缓慢起伏的画面
+     */
+    public boolean isMotionReduced() {
+        return motionPolicy.isReduced();
+    }
+
+    private void setDurationScaleObserverRegistered(boolean register) {
+        final ContentResolver resolver = context.getContentResolver();
+        if (register && durationScaleObserver == null) {
+            durationScaleObserver = new ContentObserver(new Handler(Looper.getMainLooper())) {
+                @Override
+                public void onChange(boolean selfChange) {
+                    updateDurationScale();
+                }
+            };
+            resolver.registerContentObserver(getDurationScaleUri(), false, durationScaleObserver);
+        } else if (!register && durationScaleObserver != null) {
+            resolver.unregisterContentObserver(durationScaleObserver);
+            durationScaleObserver = null;
+        }
+    }
+
+    private void updateDurationScale() {
+        final float scale = readDurationScale(context);
+        if (scale == motionPolicy.getDurationScale()) return;
+
+        motionPolicy.setDurationScale(scale);
+        onMotionPolicyChanged();
+    }
+
+    /**
+     * 减弱动态模式或缩放比例变化后重新对齐播放时间，静止画面时移除帧回调
+     */
+    private void onMotionPolicyChanged() {
+        startTimeNanos = -1;
+        updateFrameRateCap();
+        updateTicking();
+        lastDirtyBounds.setEmpty();
+        applyPlayTime(playTime);
+        invalidateAll();
+    }
+
+    private void setPowerSaveReceiverRegistered(boolean register) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) return;
+
+        if (register && powerSaveReceiver == null) {
+            powerSaveReceiver = new BroadcastReceiver() {
+                @Override
+                public void onReceive(Context context, Intent intent) {
+                    updatePowerSaveMode();
+                }
+            };
+            context.registerReceiver(powerSaveReceiver, new IntentFilter(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED));
+        } else if (!register && powerSaveReceiver != null) {
+            context.unregisterReceiver(powerSaveReceiver);
+            powerSaveReceiver = null;
+        }
+    }
+
+    private void onFrameIntervalChanged() {
+        framePacer.reset();
+        if (metrics != null) {
+            metrics.onResume();
+        }
+    }
+
+    /**
+     * 开启或关闭帧耗时统计，关闭时清空已有的数据
+     */
+    public void setFrameMetricsEnabled(boolean enabled) {
+        if (enabled == (metrics != null)) return;
+
+        metrics = enabled ? new SunBabyFrameMetrics() : null;
+    }
+
+    /**
+     * @return 帧耗时统计，未开启时返回 null
+     */
+    public SunBabyFrameMetrics getFrameMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 根据当前尺寸与烘焙参数查找或请求烘焙帧图集
+     */
+    private void updateAtlas() {
+        atlas = null;
+        atlasFrameIndex = -1;
+        atlasKey = null;
+        final Rect bounds = getBounds();
+        if (baked && bounds.width() > 0 && bounds.height() > 0) {
+            final SunBabyStyle style = renderer.getStyle();
+            final float scale = renderer.getModel().getScale();
+            atlasKey = FrameAtlasCache.key(bounds.width(), bounds.height(), scale, style, bakedFrameRate, bakedResolution);
+            FrameAtlasCache.request(atlasKey, bounds.width(), bounds.height(), scale, style, bakedFrameRate, bakedResolution, bakeAsync);
+            atlas = FrameAtlasCache.get(atlasKey);
+        }
+        invalidateAll();
+    }
+
+    private void updateSharedFrameKey() {
+        final Rect bounds = getBounds();
+        sharedFrameKey = bounds.width() > 0 && bounds.height() > 0
+                ? SunBabyTicker.frameKey(bounds.width(), bounds.height(), renderer.getModel().getScale(), renderer.getStyle())
+                : null;
+    }
+
+    @Override
+    public int getIntrinsicWidth() {
+        return intrinsicSize;
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        return intrinsicSize;
+    }
+
+    /**
+     * 只在尺寸变化时重新计算几何数据，只移动位置时无需重新计算
+     */
+    @Override
+    protected void onBoundsChange(Rect bounds) {
+        final SunBabyModel model = renderer.getModel();
+        if (bounds.width() == model.getWidth() && bounds.height() == model.getHeight()) return;
+
+        renderer.setSize(bounds.width(), bounds.height());
+        updateSharedFrameKey();
+        updateAtlas();
+
+        // 尺寸变化后整个 Drawable 都会重绘，不再需要上一帧的包围盒
+        lastDirtyBounds.setEmpty();
+        applyPlayTime(playTime);
+        invalidateAll();
+    }
+
+    /**
+     * 开始播放动画，不可见时会自动暂停，重新可见后从暂停处继续
+     */
+    @Override
+    public void start() {
+        started = true;
+        updateTicking();
+    }
+
+    /**
+     * 停止播放动画，画面停留在当前帧，再次 {@link #start()} 时从当前帧继续
+     */
+    @Override
+    public void stop() {
+        started = false;
+        updateTicking();
+    }
+
+    /**
+     * 动画是否处于启动状态（因不可见而暂停时仍视为启动状态）
+     */
+    @Override
+    public boolean isRunning() {
+        return started;
+    }
+
+    /**
+     * 宿主显示或隐藏 Drawable 时调用，restart 为 true 时从头开始播放
+     */
+    @Override
+    public boolean setVisible(boolean visible, boolean restart) {
+        final boolean changed = super.setVisible(visible, restart);
+        if (visible && restart) {
+            setCurrentPlayTime(0);
+        }
+        updateTicking();
+        return changed;
+    }
+
+    /**
+     * 将动画跳转到指定的播放时间，同样的播放时间总是绘制出同样的画面
+     * @param playTime 播放时间，单位毫秒
+     */
+    public void setCurrentPlayTime(long playTime) {
+        startTimeNanos = -1;
+        applyPlayTime(playTime);
+    }
+
+    /**
+     * 每帧调用一次，由自己的帧回调或者共享时钟驱动
+     * @return 这一帧是否按目标帧率计算了画面；为 false 时跳过了这一帧
+     */
+    boolean onTick(long frameTimeNanos) {
+        // Drawable 的 Callback 是弱引用，宿主被回收后不再继续播放
+        if (getCallback() == null) {
+            updateTicking();
+            return false;
+        }
+        if (!framePacer.shouldRender(frameTimeNanos)) return false;
+
+        if (metrics != null) {
+            metrics.onFrame(frameTimeNanos, framePacer.getCurrentIntervalNanos());
+        }
+
+        // 播放时间总是取自实际的帧时间，跳帧不会改变动画速度
+        // 系统的动画时长缩放比例不为 1 时按比例换算
+        if (useSharedTicker && phaseLocked) {
+            final long elapsedMillis = (frameTimeNanos - SunBabyTicker.getInstance().getEpochNanos()) / 1000000;
+            applyPlayTime(motionPolicy.toPlayTime(elapsedMillis), true, true);
+            return true;
+        }
+
+        if (startTimeNanos < 0) {
+            startTimeNanos = frameTimeNanos - motionPolicy.toElapsedMillis(playTime) * 1000000;
+        }
+        applyPlayTime(motionPolicy.toPlayTime((frameTimeNanos - startTimeNanos) / 1000000), true, false);
+        return true;
+    }
+
+    /**
+     * 在 frameTimeNanos 这一帧之后距离下一次需要绘制的毫秒数，共享时钟按所有实例中最小的延迟投递下一次回调
+     */
+    long getNextFrameDelayMillis(long frameTimeNanos) {
+        return framePacer.getNextFrameDelayMillis(frameTimeNanos);
+    }
+
+    private void applyPlayTime(long playTime) {
+        applyPlayTime(playTime, false, false);
+    }
+
+    /**
+     * @param skipInvisibleMotion 自动省电时，是否跳过与当前画面相比移动不足一个像素的帧
+     * @param shareFrame 是否从共享时钟的帧缓存中取得画面，只能在共享时钟分发的帧回调中为 true
+     */
+    private void applyPlayTime(long playTime, boolean skipInvisibleMotion, boolean shareFrame) {
+        this.playTime = playTime;
+
+        // 减弱动态模式下光芒与眼睛静止，不使用图集与共享的帧，进度直接生效
+        if (motionPolicy.isReduced()) {
+            atlasFrameIndex = -1;
+            if (indeterminate) {
+                motionPolicy.frameAt(renderer.getModel(), playTime, pendingFrame);
+            } else {
+                motionPolicy.frameAtProgress(renderer.getModel(), playTime, progress, pendingFrame);
+            }
+            commitFrame(skipInvisibleMotion);
+            return;
+        }
+
+        if (!indeterminate) {
+            progressSmoother.setTarget(progress);
+            renderer.getModel().frameAtProgress(playTime, progressSmoother.update(playTime), pendingFrame);
+            commitFrame(skipInvisibleMotion);
+            return;
+        }
+
+        if (atlasKey != null) {
+            // 每帧重新取得图集：使用中的图集保持为最近使用，被淘汰后不再持有，内存预算对正在显示的图集同样有效
+            final FrameAtlas cached = FrameAtlasCache.get(atlasKey);
+            if (cached != atlas) {
+                if (atlas != null) {
+                    atlasFrameIndex = -1;
+                    lastDirtyBounds.setEmpty();
+                    skipInvisibleMotion = false;
+                    invalidateAll();
+                }
+                atlas = cached;
+            }
+        }
+        if (atlas != null) {
+            // 图集的帧不做像素级比较，切换到图集前延长的唤醒间隔不再适用
+            framePacer.onFrameResult(true);
+            applyAtlasFrame(atlas.getFrameIndex(playTime));
+            return;
+        }
+
+        if (atlasKey != null) {
+            // 图集烘焙完成前或被淘汰后，按与图集相同的方式旋转光芒，切换前后光芒的角度连续
+            renderer.getModel().loopFrameAt(playTime, pendingFrame);
+        } else if (shareFrame && sharedFrameKey != null) {
+            SunBabyTicker.getInstance().frameAt(sharedFrameKey, renderer.getModel(), playTime, pendingFrame);
+        } else {
+            renderer.getModel().frameAt(playTime, pendingFrame);
+        }
+        commitFrame(skipInvisibleMotion);
+    }
+
+    /**
+     * 把新计算出的帧作为当前帧并重绘
+     */
+    private void commitFrame(boolean skipInvisibleMotion) {
+        if (skipInvisibleMotion && autoLowPower) {
+            // 画面几乎不动时延长帧回调的间隔，而不只是跳过绘制
+            final boolean visible = pendingFrame.distanceTo(frame) >= MIN_VISIBLE_MOTION;
+            framePacer.onFrameResult(visible);
+            if (!visible) return;
+        }
+
+        final SunFrame drawn = frame;
+        frame = pendingFrame;
+        pendingFrame = drawn;
+        invalidateDirtyBounds();
+    }
+
+    /**
+     * 切换到图集中的第 index 帧，帧序号不变时无需重绘
+     */
+    private void applyAtlasFrame(int index) {
+        if (index == atlasFrameIndex) return;
+
+        atlasFrameIndex = index;
+        atlas.getBounds().roundOut(invalidateRect);
+        invalidateRect(invalidateRect);
+    }
+
+    /**
+     * 计算当前帧会变化的内容的包围盒，并重绘它与上一帧包围盒的并集
+     */
+    private void invalidateDirtyBounds() {
+        SunBabyRenderer.getDirtyBounds(frame, dirtyBounds);
+        lastDirtyBounds.union(dirtyBounds);
+        lastDirtyBounds.roundOut(invalidateRect);
+        lastDirtyBounds.set(dirtyBounds);
+        invalidateRect(invalidateRect);
+    }
+
+    /**
+     * 请求重绘 rect 范围内的内容，rect 为绘制坐标，偏移到 Drawable 的边界后由 {@link #getDirtyBounds()} 返回
+     */
+    private void invalidateRect(Rect rect) {
+        final Rect bounds = getBounds();
+        rect.offset(bounds.left, bounds.top);
+        invalidateSelf();
+        if (metrics != null) {
+            metrics.onInvalidate();
+        }
+    }
+
+    /**
+     * 重绘整个 Drawable
+     */
+    private void invalidateAll() {
+        invalidateRect.set(getBounds());
+        invalidateSelf();
+    }
+
+    /**
+     * 最近一次请求重绘的区域。宿主为 {@link SunBabyLoadingView} 时只重绘这一区域，
+     * 其他宿主在 Android 5.0 及以上版本也会使用它
+     */
+    @NonNull
+    @Override
+    public Rect getDirtyBounds() {
+        return invalidateRect;
+    }
+
+    /**
+     * 当前播放的图集，未使用图集时为 null
+     */
+    FrameAtlas getAtlas() {
+        return atlas;
+    }
+
+    /**
+     * 驱动本实例的帧回调数量：已投递、尚未执行的帧回调，加上在共享时钟中的登记。
+     * 播放时应当恰好为 1，停止后为 0
+     */
+    int getActiveDriverCount() {
+        return pendingFrameCallbacks + (SunBabyTicker.getInstance().contains(this) ? 1 : 0);
+    }
+
+    /**
+     * 进程内当前已投递、尚未执行的帧回调数量，共享时钟只算一个
+     */
+    static int getLiveDriverCount() {
+        return ownDriverCount + (SunBabyTicker.getInstance().isPosted() ? 1 : 0);
+    }
+
+    /**
+     * 根据启动状态、可见性与减弱动态模式注册或移除帧回调与系统监听，静止画面不需要帧回调
+     */
+    private void updateTicking() {
+        setActive(started && isVisible() && getCallback() != null);
+        setTicking(active && (motionPolicy.needsFrames() || !indeterminate));
+    }
+
+    /**
+     * 激活时监听省电模式与动画时长缩放，并立即读取一次最新的值
+     */
+    private void setActive(boolean active) {
+        if (active == this.active) return;
+
+        this.active = active;
+        if (active) {
+            if (autoLowPower) {
+                setPowerSaveReceiverRegistered(true);
+            }
+            setDurationScaleObserverRegistered(true);
+            updatePowerSaveMode();
+            updateDurationScale();
+        } else {
+            setPowerSaveReceiverRegistered(false);
+            setDurationScaleObserverRegistered(false);
+        }
+    }
+
+    private void setTicking(boolean tick) {
+        if (tick == ticking) return;
+
+        ticking = tick;
+        if (tick) {
+            startTimeNanos = -1;
+            progressSmoother.resetClock();
+            framePacer.reset();
+            if (metrics != null) {
+                metrics.onResume();
+            }
+            if (useSharedTicker) {
+                SunBabyTicker.getInstance().register(this);
+            } else {
+                postFrameCallback(0);
+            }
+        } else {
+            if (useSharedTicker) {
+                SunBabyTicker.getInstance().unregister(this);
+            } else {
+                removeFrameCallback();
+            }
+        }
+    }
+
+    private void postFrameCallback(long delayMillis) {
+        pendingFrameCallbacks++;
+        ownDriverCount++;
+        Choreographer.getInstance().postFrameCallbackDelayed(frameCallback, delayMillis);
+    }
+
+    /**
+     * 移除所有已投递的帧回调
+     */
+    void removeFrameCallback() {
+        Choreographer.getInstance().removeFrameCallback(frameCallback);
+        ownDriverCount -= pendingFrameCallbacks;
+        pendingFrameCallbacks = 0;
+    }
+
+    @Override
+    public void draw(@NonNull Canvas canvas) {
+        final long drawStartNanos = metrics != null ? System.nanoTime() : 0;
+
+        final Rect bounds = getBounds();
+        final int saveCount;
+        if (layerPaint != null) {
+            saveCount = canvas.saveLayer(bounds.left, bounds.top, bounds.right, bounds.bottom, layerPaint, Canvas.ALL_SAVE_FLAG);
+        } else {
+            saveCount = canvas.save();
+        }
+        canvas.translate(bounds.left, bounds.top);
+
+        if (atlas != null && atlasFrameIndex >= 0) {
+            renderer.drawStaticLayer(canvas);
+            atlas.draw(canvas, atlasFrameIndex, renderer.getAtlasPaint());
+        } else {
+            renderer.draw(canvas, frame);
+        }
+
+        canvas.restoreToCount(saveCount);
+
+        if (metrics != null) {
+            metrics.onDraw(System.nanoTime() - drawStartNanos);
+        }
+    }
+
+    /**
+     * 画笔由样式相同的实例共用，透明度不为 255 时通过离屏图层合成
+     */
+    @Override
+    public void setAlpha(int alpha) {
+        if (this.alpha == alpha) return;
+
+        this.alpha = alpha;
+        updateLayerPaint();
+    }
+
+    @Override
+    public int getAlpha() {
+        return alpha;
+    }
+
+    /**
+     * 画笔由样式相同的实例共用，颜色过滤通过离屏图层合成
+     */
+    @Override
+    public void setColorFilter(ColorFilter colorFilter) {
+        this.colorFilter = colorFilter;
+        updateLayerPaint();
+    }
+
+    private void updateLayerPaint() {
+        if (alpha == 255 && colorFilter == null) {
+            layerPaint = null;
+        } else {
+            if (layerPaint == null) {
+                layerPaint = new Paint();
+            }
+            layerPaint.setAlpha(alpha);
+            layerPaint.setColorFilter(colorFilter);
+        }
+        invalidateAll();
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.zuck.swipe.sunbaby.view;
+
+/**
+ * {@link SunBabyDrawable} 的帧耗时统计，通过 {@link SunBabyLoadingView#setFrameMetricsEnabled(boolean)}
+ * 或 {@link SunBabyDrawable#setFrameMetricsEnabled(boolean)} 开启。
+ * <p>
+ * 用于区分卡顿是来自主线程（丢失的垂直同步信号）还是View本身（onDraw 耗时、多余的重绘请求）。
+ * 所有方法只能在主线程调用。
+ */
+public final class SunBabyFrameMetrics {
+
+    /**
+     * 默认保留的 onDraw 耗时样本数量
+     */
+    static final int DEFAULT_CAPACITY = 120;
+
+    private final FrameTimeHistogram drawTimes = new FrameTimeHistogram(DEFAULT_CAPACITY);
+
+    private long lastFrameTimeNanos = -1;
+
+    private long frames, invalidations, framesDrawn, missedVsyncs;
+
+    SunBabyFrameMetrics() {
+    }
+
+    /**
+     * 每次绘制新的一帧时调用
+     * @param frameIntervalNanos 与上一帧之间期望的间隔，画面静止时有意延长的间隔不计为丢帧
+     */
+    void onFrame(long frameTimeNanos, long frameIntervalNanos) {
+        frames++;
+        if (lastFrameTimeNanos >= 0) {
+            // 两次回调之间超过 1.5 帧即视为丢帧
+            final long skipped = (frameTimeNanos - lastFrameTimeNanos + frameIntervalNanos / 2) / frameIntervalNanos - 1;
+            if (skipped > 0) missedVsyncs += skipped;
+        }
+        lastFrameTimeNanos = frameTimeNanos;
+    }
+
+    /**
+     * 动画暂停后重新开始或帧率变化，此前的时间不计为丢帧
+     */
+    void onResume() {
+        lastFrameTimeNanos = -1;
+    }
+
+    void onInvalidate() {
+        invalidations++;
+    }
+
+    void onDraw(long durationNanos) {
+        framesDrawn++;
+        drawTimes.record(durationNanos);
+    }
+
+    /**
+     * 收到的帧回调次数
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * 动画请求重绘的次数
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * 实际执行 onDraw 的次数，明显少于重绘请求次数说明主线程来不及绘制
+     */
+    public long getFramesDrawn() {
+        return framesDrawn;
+    }
+
+    /**
+     * 帧之间丢失的垂直同步信号数量，按目标帧率与省电时延长后的帧间隔计算
+     */
+    public long getMissedVsyncs() {
+        return missedVsyncs;
+    }
+
+    /**
+     * 进程内当前注册的帧回调数量（所有实例的独立回调，加上共享时钟的回调）
+     */
+    public int getLiveDriverCount() {
+        return SunBabyDrawable.getLiveDriverCount();
+    }
+
+    /**
+     * 最近若干帧 onDraw 耗时的分位数，单位纳秒
+     * @param percentile 取值 [0, 100]，例如 95 表示 p95
+     */
+    public long getDrawTimePercentileNanos(float percentile) {
+        return drawTimes.getPercentile(percentile);
+    }
+
+    /**
+     * 最近若干帧中 onDraw 的最大耗时，单位纳秒
+     */
+    public long getMaxDrawTimeNanos() {
+        return drawTimes.getMax();
+    }
+
+    /**
+     * 清零所有计数
+     */
+    public void reset() {
+        frames = invalidations = framesDrawn = missedVsyncs = 0;
+        lastFrameTimeNanos = -1;
+        drawTimes.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "SunBabyFrameMetrics{frames=" + frames
+                + ", invalidations=" + invalidations
+                + ", framesDrawn=" + framesDrawn
+                + ", missedVsyncs=" + missedVsyncs
+                + ", liveDrivers=" + getLiveDriverCount()
+                + ", drawP50=" + getDrawTimePercentileNanos(50)
+                + ", drawP95=" + getDrawTimePercentileNanos(95)
+                + ", drawP99=" + getDrawTimePercentileNanos(99)
+                + "}";
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.zuck.swipe.sunbaby.view;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.support.annotation.NonNull;
+import android.util.AttributeSet;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+
+import com.zuck.swipe.sunbaby.R;
+
+/**
+ * 在独立的渲染线程上绘制的 {@link SunBabyLoadingView}，适合启动页等主线程繁忙的场景。
+ * <p>
+ * 与 {@link SunBabyLoadingView} 共用同一套绘制逻辑与样式属性。Surface 创建时启动渲染线程，
+ * 销毁时停止绘制并等待线程结束，再次创建时从暂停处继续播放。
+ * 系统的动画时长缩放比例在每次创建 Surface 时读取。
+ */
+public class SunBabyLoadingSurfaceView extends SurfaceView implements SurfaceHolder.Callback {
+
+    /**
+     * 默认宽高
+     */
+    private static final int DEFAULT_DIAMETER_SIZE = 120;
+
+    private final float scale;
+
+    private SunBabyStyle style;
+
+    private SunBabyRenderThread renderThread;
+
+    /**
+     * 上一个渲染线程结束时的播放时间
+     */
+    private long playTime;
+
+    private boolean started = true;
+
+    private int reducedMotion;
+
+    public SunBabyLoadingSurfaceView(Context context) {
+        this(context, null);
+    }
+
+    public SunBabyLoadingSurfaceView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public SunBabyLoadingSurfaceView(Context context, AttributeSet attrs, int defStyle) {
+        super(context, attrs, defStyle);
+
+        scale = SunBabyDrawable.getScale(context);
+        TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.SunBabyLoadingView, defStyle, 0);
+        style = SunBabyLoadingView.readStyle(a, scale, SunBabyDrawable.getTextScale(context));
+        reducedMotion = a.getInt(R.styleable.SunBabyLoadingView_reducedMotion, SunBabyLoadingView.REDUCED_MOTION_STATIC);
+        a.recycle();
+
+        getHolder().addCallback(this);
+    }
+
+    /**
+     * 切换样式，在渲染线程上生效
+     */
+    public void setStyle(@NonNull SunBabyStyle style) {
+        if (this.style.equals(style)) return;
+
+        this.style = style;
+        if (renderThread != null) {
+            renderThread.setStyle(style);
+        }
+    }
+
+    @NonNull
+    public SunBabyStyle getStyle() {
+        return style;
+    }
+
+    /**
+     * 设置系统关闭动画时的画面
+     * @param mode {@link SunBabyLoadingView#REDUCED_MOTION_NONE}、{@link SunBabyLoadingView#REDUCED_MOTION_STATIC}
+     *             或 {@link SunBabyLoadingView#REDUCED_MOTION_PULSE}
+     */
+    public void setReducedMotion(int mode) {
+        if (mode != SunBabyLoadingView.REDUCED_MOTION_NONE && mode != SunBabyLoadingView.REDUCED_MOTION_STATIC
+                && mode != SunBabyLoadingView.REDUCED_MOTION_PULSE) {
+            throw new IllegalArgumentException("Unknown reduced motion mode: " + mode);
+        }
+        if (reducedMotion == mode) return;
+
+        reducedMotion = mode;
+        if (renderThread != null) {
+            renderThread.setReducedMotion(mode);
+        }
+    }
+
+    public int getReducedMotion() {
+        return reducedMotion;
+    }
+
+    /**
+     * 开始播放动画
+     */
+    public void start() {
+        started = true;
+        if (renderThread != null) {
+            renderThread.setPaused(false);
+        }
+    }
+
+    /**
+     * 停止播放动画，画面停留在当前帧
+     */
+    public void stop() {
+        started = false;
+        if (renderThread != null) {
+            renderThread.setPaused(true);
+        }
+    }
+
+    public boolean isRunning() {
+        return started;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        final DisplayMetrics metrics = getResources().getDisplayMetrics();
+        final int widthMode = MeasureSpec.getMode(widthMeasureSpec);
+        final int heightMode = MeasureSpec.getMode(heightMeasureSpec);
+
+        if (widthMode == MeasureSpec.UNSPECIFIED || widthMode == MeasureSpec.AT_MOST) {
+            final int widthSize = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, DEFAULT_DIAMETER_SIZE, metrics);
+            widthMeasureSpec = MeasureSpec.makeMeasureSpec(widthSize, MeasureSpec.EXACTLY);
+        }
+
+        if (heightMode == MeasureSpec.UNSPECIFIED || heightMode == MeasureSpec.AT_MOST) {
+            final int heightSize = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, DEFAULT_DIAMETER_SIZE, metrics);
+            heightMeasureSpec = MeasureSpec.makeMeasureSpec(heightSize, MeasureSpec.EXACTLY);
+        }
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+    }
+
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {
+        renderThread = new SunBabyRenderThread(holder, scale, style, playTime, reducedMotion,
+                SunBabyDrawable.readDurationScale(getContext()));
+        renderThread.startRendering();
+        if (!started) {
+            renderThread.setPaused(true);
+        }
+    }
+
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+        renderThread.setSurfaceSize(width, height);
+    }
+
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        renderThread.quitAndWait();
+        playTime = renderThread.getPlayTime();
+        renderThread = null;
+    }
+
+}
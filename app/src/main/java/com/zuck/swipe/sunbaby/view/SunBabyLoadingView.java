@@ -1,187 +1,380 @@
 package com.zuck.swipe.sunbaby.view;
 
-import android.animation.Animator;
-import android.animation.AnimatorListenerAdapter;
-import android.animation.ValueAnimator;
 import android.content.Context;
-import android.content.res.Resources;
+import android.content.res.TypedArray;
 import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.Paint;
-import android.graphics.RectF;
+import android.graphics.drawable.Drawable;
 import android.support.annotation.NonNull;
-import android.text.TextPaint;
 import android.util.AttributeSet;
-import android.util.TypedValue;
 import android.view.View;
-import android.view.animation.AccelerateDecelerateInterpolator;
-import android.view.animation.LinearInterpolator;
 
+import com.zuck.swipe.sunbaby.R;
+import com.zuck.swipe.sunbaby.view.model.FramePacer;
+import com.zuck.swipe.sunbaby.view.model.MotionPolicy;
+import com.zuck.swipe.sunbaby.view.model.SunBabyModel;
+import com.zuck.swipe.sunbaby.view.model.SunBabyTimeline;
 
+/**
+ * 太阳宝宝 Loading，播放与绘制都由 {@link SunBabyDrawable} 完成，View 只负责读取属性、测量，
+ * 并把可见性转发给 Drawable。不需要 View 的场景（ImageView、ProgressBar、RecyclerView 的列表项）可以直接使用 Drawable
+ */
 public class SunBabyLoadingView extends View {
 
-    private static final String TAG = "SunBaby";
+    /**
+     * 帧耗时统计的回调，在主线程调用
+     */
+    public interface OnFrameMetricsListener {
+
+        /**
+         * 每绘制指定数量的帧调用一次
+         * @param metrics 累计的统计数据，只能在回调期间读取，需要保留时请复制其中的数值
+         */
+        void onFrameMetrics(SunBabyLoadingView view, SunBabyFrameMetrics metrics);
+    }
 
     /**
-     * 默认宽高
+     * 渲染模式：硬件加速，地平线以下的部分通过裁剪区域遮挡
      */
-    private static final int DEFAULT_DIAMETER_SIZE = 120;
+    public static final int RENDER_MODE_HARDWARE = 0;
 
     /**
-     * 直线起始位置的比率，以View的宽为参照
+     * 渲染模式：强制使用软件图层绘制
      */
-    private static final float RATIO_LINE_START_X = 5 / 6.f;
+    public static final int RENDER_MODE_SOFTWARE = 1;
 
     /**
-     * 直线起始位置的比率，以View的高为参照
+     * 目标帧率：与屏幕刷新率相同
      */
-    private static final float RATIO_LINE_START_Y = 3 / 4.f;
+    public static final int FRAME_RATE_NATIVE = FramePacer.FRAME_RATE_NATIVE;
 
     /**
-     * 太阳圆弧起始位置的比率，以地平线的宽为参照
+     * 系统关闭动画时的画面：忽略系统设置，始终正常播放
      */
-    private static final float RATIO_ARC_START_X = 2 / 5.f;
+    public static final int REDUCED_MOTION_NONE = MotionPolicy.REDUCED_MOTION_NONE;
 
     /**
-     * 太阳光芒之间间隔的角度
+     * 系统关闭动画时的画面：静止，太阳升到最高处，睁着眼睛
      */
-    private static final float SUNSHINE_SEPARATIO_ANGLE = 45;
+    public static final int REDUCED_MOTION_STATIC = MotionPolicy.REDUCED_MOTION_STATIC;
 
     /**
-     * 画笔的颜色
+     * 系统关闭动画时的画面：以很低的帧率缓慢起伏
      */
-    private static final String PAINT_COLOR = "#7A6021";
+    public static final int REDUCED_MOTION_PULSE = MotionPolicy.REDUCED_MOTION_PULSE;
+
+    private final SunBabyDrawable drawable;
+
+    private boolean attached;
+
+    private int renderMode = RENDER_MODE_HARDWARE;
+
+    private OnFrameMetricsListener metricsListener;
+
+    private int metricsReportInterval;
+
+    public SunBabyLoadingView(Context context) {
+        this(context, null);
+    }
+
+    public SunBabyLoadingView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public SunBabyLoadingView(Context context, AttributeSet attrs, int defStyle) {
+        super(context, attrs, defStyle);
+
+        TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.SunBabyLoadingView, defStyle, 0);
+        final SunBabyStyle style = readStyle(a, SunBabyDrawable.getScale(context), SunBabyDrawable.getTextScale(context));
+        drawable = new SunBabyDrawable(context, style);
+        // 附加到窗口之前不播放
+        drawable.setVisible(false, false);
+        drawable.setCallback(this);
+
+        setRenderMode(a.getInt(R.styleable.SunBabyLoadingView_renderMode, RENDER_MODE_HARDWARE));
+        drawable.setBakeAsync(a.getBoolean(R.styleable.SunBabyLoadingView_bakeAsync, true));
+        drawable.setBakedFrameRate(a.getInt(R.styleable.SunBabyLoadingView_bakedFrameRate, SunBabyDrawable.DEFAULT_BAKED_FRAME_RATE));
+        drawable.setBakedResolution(a.getFloat(R.styleable.SunBabyLoadingView_bakedResolution, 1));
+        drawable.setBaked(a.getBoolean(R.styleable.SunBabyLoadingView_baked, false));
+        drawable.setUseSharedTicker(a.getBoolean(R.styleable.SunBabyLoadingView_sharedTicker, false));
+        drawable.setPhaseLocked(a.getBoolean(R.styleable.SunBabyLoadingView_phaseLocked, false));
+        drawable.setProgress(a.getFloat(R.styleable.SunBabyLoadingView_progress, 0));
+        drawable.setIndeterminate(a.getBoolean(R.styleable.SunBabyLoadingView_indeterminate, true));
+        drawable.setTargetFrameRate(a.getInt(R.styleable.SunBabyLoadingView_targetFrameRate, FRAME_RATE_NATIVE));
+        drawable.setAutoLowPower(a.getBoolean(R.styleable.SunBabyLoadingView_autoLowPower, true));
+        drawable.setReducedMotion(a.getInt(R.styleable.SunBabyLoadingView_reducedMotion, REDUCED_MOTION_STATIC));
+        a.recycle();
+
+        drawable.start();
+        setBackgroundColor(style.getBackgroundColor());
+    }
+
+    /**
+     * 读取样式属性，未设置的尺寸按 scale 由设计尺寸换算为像素，未设置的文字大小按 textScale 换算，随系统字体大小缩放
+     */
+    static SunBabyStyle readStyle(TypedArray a, float scale, float textScale) {
+        final SunBabyStyle.Builder builder = new SunBabyStyle.Builder()
+                .setColor(a.getColor(R.styleable.SunBabyLoadingView_sunColor, SunBabyStyle.DEFAULT_COLOR))
+                .setTextColor(a.getColor(R.styleable.SunBabyLoadingView_labelColor, SunBabyStyle.DEFAULT_COLOR))
+                .setBackgroundColor(a.getColor(R.styleable.SunBabyLoadingView_sunBackgroundColor, SunBabyStyle.DEFAULT_BACKGROUND_COLOR))
+                .setStrokeWidths(
+                        a.getDimension(R.styleable.SunBabyLoadingView_lineStrokeWidth, SunBabyModel.DEFAULT_LINE_STROKE_WIDTH * scale),
+                        a.getDimension(R.styleable.SunBabyLoadingView_sunStrokeWidth, SunBabyModel.DEFAULT_SUN_STROKE_WIDTH * scale))
+                .setRayCount(a.getInt(R.styleable.SunBabyLoadingView_rayCount, SunBabyModel.DEFAULT_RAY_COUNT))
+                .setDurations(
+                        a.getInt(R.styleable.SunBabyLoadingView_cycleDuration, (int) SunBabyTimeline.CYCLE_DURATION),
+                        a.getInt(R.styleable.SunBabyLoadingView_spinDuration, (int) SunBabyTimeline.SPIN_DURATION))
+                .setTextSize(a.getDimension(R.styleable.SunBabyLoadingView_labelTextSize, SunBabyStyle.DEFAULT_TEXT_SIZE * textScale));
+        final String text = a.getString(R.styleable.SunBabyLoadingView_label);
+        if (text != null) {
+            builder.setText(text);
+        }
+        return builder.build();
+    }
 
     /**
-     * 背景色
+     * 负责播放与绘制的 Drawable，其上的设置与 View 的同名方法等效
      */
-    private static final String BG_COLOR = "#F4C042";
+    @NonNull
+    public SunBabyDrawable getDrawable() {
+        return drawable;
+    }
 
     /**
-     * 太阳圆弧与光芒的空隙间距
+     * 切换样式，只重新计算受影响的几何数据，无需重新创建View
      */
-    private static final float SPACE_SUNSHINE = 12;
+    public void setStyle(@NonNull SunBabyStyle style) {
+        final SunBabyStyle old = drawable.getStyle();
+        if (old.equals(style)) return;
+
+        drawable.setStyle(style);
+        if (old.getBackgroundColor() != style.getBackgroundColor()) {
+            setBackgroundColor(style.getBackgroundColor());
+        }
+    }
+
+    @NonNull
+    public SunBabyStyle getStyle() {
+        return drawable.getStyle();
+    }
 
     /**
-     * 太阳光芒的长度
+     * 设置地平线、太阳、光芒与眼睛的颜色
      */
-    private static final float SUNSHINE_LINE_LENGTH = 15;
+    public void setColor(int color) {
+        setStyle(getStyle().buildUpon().setColor(color).build());
+    }
 
     /**
-     * 太阳升起高度基准值
+     * 设置地平线下方文字的颜色
      */
-    private static final float SUNSHINE_RISE_HEIGHT = 12;
+    public void setTextColor(int color) {
+        setStyle(getStyle().buildUpon().setTextColor(color).build());
+    }
 
     /**
-     * 太阳眼睛的半径
+     * 设置地平线下方的文字
      */
-    private static final float SUN_EYES_RADIUS = 6;
+    public void setText(String text) {
+        setStyle(getStyle().buildUpon().setText(text).build());
+    }
 
     /**
-     * 默认偏移量
+     * 设置光芒的数量
      */
-    private static final int DEFAULT_OFFSET_Y = 20;
+    public void setRayCount(int rayCount) {
+        setStyle(getStyle().buildUpon().setRayCount(rayCount).build());
+    }
 
     /**
-     * 地平线起点坐标(lineStartX, lineStartY)，地平线长度lineLength
+     * 设置动画时长
+     * @param cycleDuration 一次升起落下循环的时长，单位毫秒
+     * @param spinDuration 阳光旋转一周的时长，单位毫秒
      */
-    private float lineStartX, lineStartY, lineLength;
+    public void setDurations(long cycleDuration, long spinDuration) {
+        setStyle(getStyle().buildUpon().setDurations(cycleDuration, spinDuration).build());
+    }
 
     /**
-     * 文字坐标点x,y值
+     * 设置渲染模式
+     * @param mode {@link #RENDER_MODE_HARDWARE} 或 {@link #RENDER_MODE_SOFTWARE}
      */
-    private float textX, textY;
+    public void setRenderMode(int mode) {
+        if (mode != RENDER_MODE_HARDWARE && mode != RENDER_MODE_SOFTWARE) {
+            throw new IllegalArgumentException("Unknown render mode: " + mode);
+        }
+        renderMode = mode;
+        setLayerType(mode == RENDER_MODE_SOFTWARE ? LAYER_TYPE_SOFTWARE : LAYER_TYPE_NONE, null);
+    }
+
+    public int getRenderMode() {
+        return renderMode;
+    }
 
     /**
-     * 太阳圆圈的半径
+     * 设置是否播放预先烘焙好的帧图集。图集按尺寸与烘焙参数在所有实例间共享，烘焙完成前仍然实时绘制
      */
-    private float sunRadius;
+    public void setBaked(boolean baked) {
+        drawable.setBaked(baked);
+    }
+
+    public boolean isBaked() {
+        return drawable.isBaked();
+    }
 
     /**
-     * 阳光的起始坐标x,y值
+     * 设置烘焙帧图集的帧率
      */
-    private double sunshineStartX, sunshineStartY, sunshineStopX, sunshineStopY;
+    public void setBakedFrameRate(int frameRate) {
+        drawable.setBakedFrameRate(frameRate);
+    }
 
     /**
-     * 眼睛转动的最大距离
+     * 设置烘焙帧图集的分辨率，取值 (0, 1]，1 表示与View的分辨率相同
      */
-    private float maxEyesTurn;
+    public void setBakedResolution(float resolution) {
+        drawable.setBakedResolution(resolution);
+    }
 
     /**
-     * 眼睛转动的偏移值
+     * 设置是否在后台线程烘焙帧图集
      */
-    private float turnOffsetX;
+    public void setBakeAsync(boolean async) {
+        drawable.setBakeAsync(async);
+    }
 
     /**
-     * 用于缓存太阳圆弧的外轮廓矩形区域顶点坐标值
+     * 设置所有帧图集共用的内存预算，超出预算时按最近最少使用的顺序淘汰，单个图集放不下时降低其分辨率。
+     * 正在显示的图集同样计入预算：被淘汰后 View 在下一帧释放它并改为实时绘制
+     * @param bytes 字节数，默认 16MB
      */
-    private float orectLeft, orectTop, orectRight, orectBottom;
+    public static void setAtlasMemoryBudget(int bytes) {
+        FrameAtlasCache.setMemoryBudget(bytes);
+    }
 
-    private boolean once = true;
+    /**
+     * 设置是否由进程内共享的时钟驱动。同屏有大量实例时，共享时钟每帧只分发一次回调
+     */
+    public void setUseSharedTicker(boolean useSharedTicker) {
+        drawable.setUseSharedTicker(useSharedTicker);
+    }
 
-    private boolean isDrawEyes = true;
+    public boolean isUseSharedTicker() {
+        return drawable.isUseSharedTicker();
+    }
 
-    private float offsetY = DEFAULT_OFFSET_Y, offsetSpin, offsetAngle;
+    /**
+     * 设置是否与其他实例保持相同的相位，只在使用共享时钟时生效。
+     * <p>
+     * 相位同步的View都从共享时钟的起点计算播放时间，中途显示的View直接加入当前的相位；
+     * 尺寸与样式几何参数相同的View每帧只计算一次画面（光芒、圆弧与眨眼状态），其余View直接复用
+     */
+    public void setPhaseLocked(boolean phaseLocked) {
+        drawable.setPhaseLocked(phaseLocked);
+    }
 
-    private float tempOffsetY = offsetY;
+    public boolean isPhaseLocked() {
+        return drawable.isPhaseLocked();
+    }
 
-    private Paint mPaint, sunPaint, eyePaint, bgPaint;
+    /**
+     * 设置是否为不确定进度模式。关闭后太阳的高度与圆弧由 {@link #setProgress(float)} 决定，
+     * 光芒旋转与眨眼动画照常播放；进度模式下不使用烘焙的帧图集
+     */
+    public void setIndeterminate(boolean indeterminate) {
+        drawable.setIndeterminate(indeterminate);
+    }
 
-    private TextPaint mTextPaint;
+    public boolean isIndeterminate() {
+        return drawable.isIndeterminate();
+    }
 
-    private RectF rectF;
+    /**
+     * 设置进度，只在进度模式下生效。
+     * <p>
+     * 可以在任意线程频繁调用：只记录最新的值，不分配对象也不立即重绘，
+     * 由下一帧统一读取并平滑过渡，每帧最多重绘一次。动画停止时直接跳到该进度并重绘，
+     * 其他线程的调用转到主线程执行，尚未执行前的多次调用只重绘一次。
+     * @param progress 进度，取值 [0, 1]
+     */
+    public void setProgress(float progress) {
+        drawable.setProgress(progress);
+    }
 
+    public float getProgress() {
+        return drawable.getProgress();
+    }
 
-    public SunBabyLoadingView(Context context) {
-        this(context, null);
+    /**
+     * 设置目标帧率，跳过的帧不会绘制，但动画仍然按实际时间播放
+     * @param frameRate 每秒的帧数，{@link #FRAME_RATE_NATIVE} 表示与屏幕刷新率相同
+     */
+    public void setTargetFrameRate(int frameRate) {
+        drawable.setTargetFrameRate(frameRate);
     }
 
-    public SunBabyLoadingView(Context context, AttributeSet attrs) {
-        this(context, attrs, 0);
+    public int getTargetFrameRate() {
+        return drawable.getTargetFrameRate();
     }
 
-    public SunBabyLoadingView(Context context, AttributeSet attrs, int defStyle) {
-        super(context, attrs, defStyle);
-        setLayerType(LAYER_TYPE_SOFTWARE, null);
-        setBackgroundColor(Color.parseColor(BG_COLOR));
-        initRes();
-    }
-
-    private void initRes() {
-        mPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        mPaint.setStyle(Paint.Style.STROKE);
-        mPaint.setStrokeCap(Paint.Cap.ROUND);
-        mPaint.setStrokeJoin(Paint.Join.ROUND);
-        mPaint.setStrokeWidth(5);
-        mPaint.setColor(Color.parseColor(PAINT_COLOR));
-
-        sunPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        sunPaint.setStyle(Paint.Style.STROKE);
-        sunPaint.setStrokeWidth(10);
-        sunPaint.setColor(Color.parseColor(PAINT_COLOR));
-
-        eyePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        eyePaint.setStyle(Paint.Style.FILL);
-        eyePaint.setStrokeCap(Paint.Cap.ROUND);
-        eyePaint.setStrokeJoin(Paint.Join.ROUND);
-        eyePaint.setStrokeWidth(1);
-        eyePaint.setColor(Color.parseColor(PAINT_COLOR));
-
-        mTextPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
-        mTextPaint.setStyle(Paint.Style.FILL_AND_STROKE);
-        mTextPaint.setStrokeWidth(1);
-        mTextPaint.setTextSize(20);
-        mTextPaint.setColor(Color.parseColor(PAINT_COLOR));
-        mTextPaint.setTextAlign(Paint.Align.CENTER);
-
-        bgPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        bgPaint.setStyle(Paint.Style.FILL);
-        bgPaint.setStrokeCap(Paint.Cap.ROUND);
-        bgPaint.setStrokeJoin(Paint.Join.ROUND);
-        bgPaint.setStrokeWidth(1);
-        bgPaint.setColor(Color.parseColor(BG_COLOR));
-
-        rectF = new RectF();
+    /**
+     * 设置是否自动省电：系统开启省电模式时帧率不超过 30，画面移动不足一个像素的帧不重绘
+     */
+    public void setAutoLowPower(boolean autoLowPower) {
+        drawable.setAutoLowPower(autoLowPower);
+    }
+
+    public boolean isAutoLowPower() {
+        return drawable.isAutoLowPower();
+    }
+
+    /**
+     * 设置系统关闭动画（开发者选项中的动画时长缩放为 0，或无障碍设置中移除动画）时的画面。
+     * 缩放比例不为 0 时，动画按比例放慢或加快播放
+     * @param mode {@link #REDUCED_MOTION_NONE}、{@link #REDUCED_MOTION_STATIC} 或 {@link #REDUCED_MOTION_PULSE}
+     */
+    public void setReducedMotion(int mode) {
+        drawable.setReducedMotion(mode);
+    }
+
+    public int getReducedMotion() {
+        return drawable.getReducedMotion();
+    }
+
+    /**
+     * 当前是否因系统关闭动画而显示静止或缓慢起伏的画面
+     */
+    public boolean isMotionReduced() {
+        return drawable.isMotionReduced();
+    }
+
+    /**
+     * 开启或关闭帧耗时统计，关闭时清空已有的数据
+     */
+    public void setFrameMetricsEnabled(boolean enabled) {
+        drawable.setFrameMetricsEnabled(enabled);
+    }
+
+    /**
+     * @return 帧耗时统计，未开启时返回 null
+     */
+    public SunBabyFrameMetrics getFrameMetrics() {
+        return drawable.getFrameMetrics();
+    }
+
+    /**
+     * 设置帧耗时统计的回调，设置回调时自动开启统计
+     * @param listener 为 null 时移除回调，统计仍然保持开启
+     * @param reportIntervalFrames 每绘制多少帧回调一次
+     */
+    public void setOnFrameMetricsListener(OnFrameMetricsListener listener, int reportIntervalFrames) {
+        if (reportIntervalFrames <= 0) {
+            throw new IllegalArgumentException("Report interval must be positive: " + reportIntervalFrames);
+        }
+        metricsListener = listener;
+        metricsReportInterval = reportIntervalFrames;
+        if (listener != null) {
+            setFrameMetricsEnabled(true);
+        }
     }
 
     @Override
@@ -190,466 +383,126 @@ public class SunBabyLoadingView extends View {
         final int widthMode = MeasureSpec.getMode(widthMeasureSpec);
         final int heightMode = MeasureSpec.getMode(heightMeasureSpec);
 
-        int widthSize;
-        int heightSize;
-
-        Resources r = Resources.getSystem();
+        // Drawable 的默认尺寸按View自身的资源换算，与显示缩放等情况下的实际密度一致
         if (widthMode == MeasureSpec.UNSPECIFIED || widthMode == MeasureSpec.AT_MOST) {
-            widthSize = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, DEFAULT_DIAMETER_SIZE, r.getDisplayMetrics());
-            widthMeasureSpec = MeasureSpec.makeMeasureSpec(widthSize, MeasureSpec.EXACTLY);
+            widthMeasureSpec = MeasureSpec.makeMeasureSpec(drawable.getIntrinsicWidth(), MeasureSpec.EXACTLY);
         }
 
         if (heightMode == MeasureSpec.UNSPECIFIED || heightMode == MeasureSpec.AT_MOST) {
-            heightSize = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, DEFAULT_DIAMETER_SIZE, r.getDisplayMetrics());
-            heightMeasureSpec = MeasureSpec.makeMeasureSpec(heightSize, MeasureSpec.EXACTLY);
+            heightMeasureSpec = MeasureSpec.makeMeasureSpec(drawable.getIntrinsicHeight(), MeasureSpec.EXACTLY);
         }
         super.onMeasure(widthMeasureSpec, heightMeasureSpec);
 
     }
 
+    /**
+     * 只在尺寸变化时重新计算几何数据，动画的启停与布局无关，由可见性与 {@link #start()}/{@link #stop()} 决定
+     */
     @Override
-    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
-        super.onLayout(changed, left, top, right, bottom);
-
-        final int width = getWidth();
-        final int height = getHeight();
-
-        // 初始化地平线长度
-        lineLength = width * RATIO_LINE_START_X;
-
-        // 初始化地平线起始坐标X,Y值
-        lineStartX = (width - lineLength) * .5f;
-        lineStartY = height * RATIO_LINE_START_Y;
-
-        // 计算文字的坐标X,Y值
-        textX = width * .5f;
-        textY = lineStartY + (height - lineStartY) * .5f + Math.abs(mTextPaint.descent() + mTextPaint.ascent()) * .5f;
+    protected void onSizeChanged(int width, int height, int oldWidth, int oldHeight) {
+        super.onSizeChanged(width, height, oldWidth, oldHeight);
 
-        // 计算太阳圆圈的半径
-        sunRadius = (lineLength - lineLength * RATIO_ARC_START_X) * .5f;
-
-        // 计算两眼之间的距离，也是眼睛平移的最大距离
-        maxEyesTurn = (sunRadius + sunPaint.getStrokeWidth() * .5f) * .5f;
-
-        calcAndSetRectPoint();
-        calcOffsetAngle();
-        initAnimaDriver();
+        drawable.setBounds(0, 0, width, height);
     }
 
     /**
-     * 计算由于太阳升起或者落下偏移Y值所对应对的角度
+     * 开始播放动画，不可见时会自动暂停，重新可见后从暂停处继续
      */
-    private void calcOffsetAngle() {
-        offsetAngle = (float) (Math.asin(offsetY / sunRadius) * 180 / Math.PI);
+    public void start() {
+        drawable.start();
     }
 
     /**
-     * 计算太阳圆弧的外轮廓矩形区域顶点坐标值, 并设置给rectF
+     * 停止播放动画，画面停留在当前帧，再次 {@link #start()} 时从当前帧继续
      */
-    private void calcAndSetRectPoint() {
-        float rectLeft = lineStartX + lineLength * .5f - sunRadius;
-        float rectTop = lineStartY - sunRadius + offsetY;
-        float rectRight = lineLength - rectLeft + 2 * lineStartX;
-        float rectBottom = rectTop + 2 * sunRadius;
-
-        rectF.set(rectLeft, rectTop, rectRight, rectBottom);
+    public void stop() {
+        drawable.stop();
     }
 
     /**
-     * 初始化动画驱动
+     * 动画是否处于启动状态（因不可见而暂停时仍视为启动状态）
      */
-    private void initAnimaDriver() {
-        startSpinAnima();
-
-        final ValueAnimator rise1SlowAnima = initRise1Animator();
-        rise1SlowAnima.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-
-                final ValueAnimator riseFastAnima = initRiseFastAnimator();
-                riseFastAnima.start();
-
-                riseFastAnima.addListener(new AnimatorListenerAdapter() {
-                    @Override
-                    public void onAnimationEnd(Animator animation) {
-                        playRisedEyesAnimator();
-                        playRisedCyclingAnimator(rise1SlowAnima);
-                    }
-                });
-            }
-        });
-
-        rise1SlowAnima.start();
+    public boolean isRunning() {
+        return drawable.isRunning();
     }
 
     /**
-     * 当太阳快速升起完毕后启动第二次缓慢升起动画
-     * @param rise1SlowAnima
+     * 将动画跳转到指定的播放时间，同样的播放时间总是绘制出同样的画面
+     * @param playTime 播放时间，单位毫秒
      */
-    private void playRisedCyclingAnimator(final ValueAnimator rise1SlowAnima) {
-        final ValueAnimator rise2SlowAnima = initRise2SlowAnimator();
-        rise2SlowAnima.start();
-
-        rise2SlowAnima.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-
-                final ValueAnimator sinkAnima = initSinkAnimator();
-                sinkAnima.start();
-
-                sinkAnima.addListener(new AnimatorListenerAdapter() {
-                    @Override
-                    public void onAnimationEnd(Animator animation) {
-                        rise1SlowAnima.start();
-                    }
-                });
-            }
-        });
+    public void setCurrentPlayTime(long playTime) {
+        drawable.setCurrentPlayTime(playTime);
     }
 
     /**
-     * 当太阳快速升起完毕后启动眨动眼睛两次动画
+     * 驱动本实例的帧回调数量，播放时应当恰好为 1
      */
-    private void playRisedEyesAnimator() {
-        final ValueAnimator blink2Anima = initBlink2Animator();
-        blink2Anima.start();
-
-        blink2Anima.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-
-                final ValueAnimator turnEyesRightAnima = initTurnEyesRightAnimator();
-                turnEyesRightAnima.start();
-
-                turnEyesRightAnima.addListener(new AnimatorListenerAdapter() {
-                    @Override
-                    public void onAnimationEnd(Animator animation) {
-                        final ValueAnimator blink1Anima = initBlink1Animator();
-
-                        blink1Anima.addListener(new AnimatorListenerAdapter() {
-                            @Override
-                            public void onAnimationEnd(Animator animation) {
-                                final ValueAnimator turnEyesLeftAnima = initTurnEyesLeftAnimator();
-                                turnEyesLeftAnima.start();
-                            }
-                        });
-                        blink1Anima.start();
-                    }
-                });
-            }
-        });
+    int getActiveDriverCount() {
+        return drawable.getActiveDriverCount();
     }
 
-    /**
-     * 初始化太阳迅速落下的动画
-     * @return
-     */
-    @NonNull
-    private ValueAnimator initSinkAnimator() {
-        final float endValue = DEFAULT_OFFSET_Y - tempOffsetY;
-
-        final float middleValue = endValue * .5f;
-
-        orectLeft = rectF.left;
-        orectTop = rectF.top;
-        orectRight = rectF.right;
-        orectBottom = rectF.bottom;
-
-        ValueAnimator sinkAnima = ValueAnimator.ofFloat(0, endValue);
-        sinkAnima.setDuration(200);
-        sinkAnima.setInterpolator(new AccelerateDecelerateInterpolator());
-        sinkAnima.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                float animaValue = Float.parseFloat(animation.getAnimatedValue().toString());
-
-                float ratioValue;
-                if (animaValue < middleValue) {
-                    ratioValue = animaValue * .5f;
-                    rectF.set(orectLeft + ratioValue, orectTop + animaValue, orectRight - ratioValue, orectBottom + animaValue);
-                } else {
-                    if (once) {
-                        orectLeft = rectF.left;
-                        orectTop = rectF.top;
-                        orectRight = rectF.right;
-                        orectBottom = rectF.bottom;
-                        once = false;
-                    }
-                    ratioValue = (animaValue - middleValue) * .5f;
-                    rectF.set(orectLeft - ratioValue, orectTop + animaValue, orectRight + ratioValue, orectBottom + animaValue);
-                }
-
-                offsetY = tempOffsetY + animaValue;
-                calcOffsetAngle();
-                postInvalidate();
-            }
-        });
-        sinkAnima.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                once = true;
-            }
-        });
-        return sinkAnima;
-    }
-
-    /**
-     * 初始化第二次缓慢升起的动画
-     * @return
-     */
-    @NonNull
-    private ValueAnimator initRise2SlowAnimator() {
-        ValueAnimator rise2SlowAnima = ValueAnimator.ofFloat(0, SUNSHINE_RISE_HEIGHT * 1.5f);
-        rise2SlowAnima.setDuration(3000);
-        rise2SlowAnima.setInterpolator(new LinearInterpolator());
-        rise2SlowAnima.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                float animaValue = Float.parseFloat(animation.getAnimatedValue().toString());
-                offsetY = tempOffsetY - animaValue;
-                calcAndSetRectPoint();
-                calcOffsetAngle();
-                postInvalidate();
-            }
-        });
-        rise2SlowAnima.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                tempOffsetY = offsetY;
-            }
-        });
-        return rise2SlowAnima;
-    }
-
-    /**
-     * 初始化眼睛向左边转动的动画
-     * @return
-     */
-    @NonNull
-    private ValueAnimator initTurnEyesLeftAnimator() {
-        ValueAnimator turnEyesLeftAnima = ValueAnimator.ofFloat(maxEyesTurn, 0);
-        turnEyesLeftAnima.setStartDelay(800);
-        turnEyesLeftAnima.setDuration(150);
-        turnEyesLeftAnima.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                turnOffsetX = Float.parseFloat(animation.getAnimatedValue().toString());
-                postInvalidate();
-            }
-        });
-        return turnEyesLeftAnima;
+    @Override
+    protected boolean verifyDrawable(@NonNull Drawable who) {
+        return who == drawable || super.verifyDrawable(who);
     }
 
     /**
-     * 初始化眨动一次眼睛动画
-     * @return
-     */
-    @NonNull
-    private ValueAnimator initBlink1Animator() {
-        ValueAnimator blink1Anima = ValueAnimator.ofInt(0, 1);
-        blink1Anima.setInterpolator(new LinearInterpolator());
-        blink1Anima.setStartDelay(600);
-        blink1Anima.setDuration(100);
-        blink1Anima.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                int animaValue = Integer.parseInt(animation.getAnimatedValue().toString());
-                if (animaValue == 0) {
-                    isDrawEyes = false;
-                } else if (animaValue == 1) {
-                    isDrawEyes = true;
-                }
-                postInvalidate();
-            }
-        });
-        return blink1Anima;
-    }
-
-    /**
-     * 初始化眼睛向右转动的动画
-     * @return
+     * 只重绘 Drawable 给出的区域：当前帧与上一帧中会变化的内容的并集
      */
-    @NonNull
-    private ValueAnimator initTurnEyesRightAnimator() {
-        ValueAnimator turnEyesRightAnima = ValueAnimator.ofFloat(0, maxEyesTurn);
-        turnEyesRightAnima.setStartDelay(200);
-        turnEyesRightAnima.setDuration(150);
-        turnEyesRightAnima.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                turnOffsetX = Float.parseFloat(animation.getAnimatedValue().toString());
-                postInvalidate();
-            }
-        });
-        return turnEyesRightAnima;
+    @Override
+    public void invalidateDrawable(@NonNull Drawable who) {
+        if (who == drawable) {
+            invalidate(drawable.getDirtyBounds());
+        } else {
+            super.invalidateDrawable(who);
+        }
     }
 
     /**
-     * 初始化眨动两次眼睛动画
-     * @return
-     */
-    @NonNull
-    private ValueAnimator initBlink2Animator() {
-        ValueAnimator blink2Anima = ValueAnimator.ofInt(0, 1, 0, 1);
-        blink2Anima.setInterpolator(new LinearInterpolator());
-        blink2Anima.setStartDelay(400);
-        blink2Anima.setDuration(500);
-        blink2Anima.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                int animaValue = Integer.parseInt(animation.getAnimatedValue().toString());
-                if (animaValue == 0) {
-                    isDrawEyes = false;
-                } else if (animaValue == 1) {
-                    isDrawEyes = true;
-                }
-                postInvalidate();
-            }
-        });
-        return blink2Anima;
-    }
-
-    /**
-     * 初始化太阳快速升起动画
-     * @return
+     * 根据是否附加到窗口以及自身与窗口的可见性显示或隐藏 Drawable，不可见时暂停播放
      */
-    @NonNull
-    private ValueAnimator initRiseFastAnimator() {
-
-        orectLeft = rectF.left;
-        orectTop = rectF.top;
-        orectRight = rectF.right;
-        orectBottom = rectF.bottom;
-
-        final float endValue = SUNSHINE_RISE_HEIGHT * 2.5f;
-        final float middleValue = endValue * .5f;
-        ValueAnimator riseFastAnima = ValueAnimator.ofFloat(0, endValue);
-        riseFastAnima.setDuration(200);
-        riseFastAnima.setInterpolator(new AccelerateDecelerateInterpolator());
-        riseFastAnima.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                float animaValue = Float.parseFloat(animation.getAnimatedValue().toString());
-                if (animaValue < middleValue) {
-                    rectF.set(orectLeft - animaValue, orectTop + animaValue, orectRight + animaValue, orectBottom - animaValue);
-                } else {
-                    if (once) {
-                        orectLeft = rectF.left;
-                        orectTop = rectF.top;
-                        orectRight = rectF.right;
-                        orectBottom = rectF.bottom;
-                        once = false;
-                    }
-                    rectF.set(orectLeft + (animaValue - middleValue), orectTop - (animaValue - middleValue), orectRight - (animaValue - middleValue), orectBottom + (animaValue - middleValue));
-                }
-
-                offsetY = tempOffsetY - animaValue;
-                calcOffsetAngle();
-                postInvalidate();
-            }
-        });
-        riseFastAnima.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                tempOffsetY = offsetY;
-                once = true;
-            }
-        });
-        return riseFastAnima;
-    }
-
-    /**
-     * 初始化太阳第一次缓慢升起动画
-     * @return
-     */
-    @NonNull
-    private ValueAnimator initRise1Animator() {
-        final ValueAnimator rise1SlowAnima = ValueAnimator.ofFloat(0, SUNSHINE_RISE_HEIGHT);
-        rise1SlowAnima.setDuration(2500);
-        rise1SlowAnima.setInterpolator(new LinearInterpolator());
-        rise1SlowAnima.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                float animaValue = Float.parseFloat(animation.getAnimatedValue().toString());
-                offsetY = DEFAULT_OFFSET_Y - animaValue;
-                calcAndSetRectPoint();
-                calcOffsetAngle();
-                postInvalidate();
-            }
-        });
-        rise1SlowAnima.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                tempOffsetY = offsetY;
-            }
-        });
-        return rise1SlowAnima;
-    }
-
-    /**
-     * 启动阳光旋转动画
-     */
-    private void startSpinAnima() {
-        ValueAnimator spinAnima = ValueAnimator.ofFloat(0, 360);
-        spinAnima.setRepeatCount(-1);
-        spinAnima.setDuration(24 * 1000);
-        spinAnima.setInterpolator(new LinearInterpolator());
-        spinAnima.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                offsetSpin = Float.parseFloat(animation.getAnimatedValue().toString());
-                postInvalidate();
-            }
-        });
-        spinAnima.start();
+    private void updateDrawableVisibility() {
+        drawable.setVisible(attached && getWindowVisibility() == VISIBLE && isShown(), false);
     }
 
     @Override
-    protected void onDraw(Canvas canvas) {
-        super.onDraw(canvas);
-
-        canvas.drawLine(lineStartX, lineStartY, lineStartX + lineLength, lineStartY, mPaint);
-        canvas.drawArc(rectF, -180 + offsetAngle, 180 - offsetAngle * 2, false, sunPaint);
-
-        if (isDrawEyes)
-            drawSunEyes(canvas);
-
-        drawSunshine(canvas);
-
-        drawUnderLineView(canvas);
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        attached = true;
+        updateDrawableVisibility();
     }
 
-    private void drawUnderLineView(Canvas canvas) {
-        canvas.save();
-        canvas.drawRect(0, lineStartY + mPaint.getStrokeWidth() * .5f, getWidth(), getHeight(), bgPaint);
-        canvas.drawText("sunrise", textX, textY, mTextPaint);
-        canvas.restore();
+    @Override
+    protected void onDetachedFromWindow() {
+        attached = false;
+        updateDrawableVisibility();
+        super.onDetachedFromWindow();
     }
 
-    private void drawSunshine(Canvas canvas) {
-        for (int a = 0; a <= 360; a += SUNSHINE_SEPARATIO_ANGLE) {
-            sunshineStartX = Math.cos(Math.toRadians(a + offsetSpin)) * (sunRadius + SPACE_SUNSHINE + sunPaint.getStrokeWidth()) + getWidth() * .5f;
-            sunshineStartY = Math.sin(Math.toRadians(a + offsetSpin)) * (sunRadius + SPACE_SUNSHINE + sunPaint.getStrokeWidth()) + offsetY + lineStartY;
-
-            sunshineStopX = Math.cos(Math.toRadians(a + offsetSpin)) * (sunRadius + SPACE_SUNSHINE + SUNSHINE_LINE_LENGTH + sunPaint.getStrokeWidth()) + getWidth() * .5f;
-            sunshineStopY = Math.sin(Math.toRadians(a + offsetSpin)) * (sunRadius + SPACE_SUNSHINE + SUNSHINE_LINE_LENGTH + sunPaint.getStrokeWidth()) + offsetY + lineStartY;
-            if (sunshineStartY <= lineStartY && sunshineStopY <= lineStartY) {
-                canvas.drawLine((float) sunshineStartX, (float) sunshineStartY, (float) sunshineStopX, (float) sunshineStopY, mPaint);
-            }
+    @Override
+    protected void onVisibilityChanged(@NonNull View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        // 父类构造期间也会回调，此时 Drawable 尚未创建
+        if (drawable != null) {
+            updateDrawableVisibility();
         }
     }
 
-    private void drawSunEyes(Canvas canvas) {
-        float lcx = getWidth() * .5f - (sunRadius + sunPaint.getStrokeWidth() * .5f) * .5f + turnOffsetX;
-        float lcy = lineStartY + offsetY - SUN_EYES_RADIUS;
-
-        if (lcy + SUN_EYES_RADIUS >= lineStartY) return ;
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        updateDrawableVisibility();
+    }
 
-        float rcx = getWidth() * .5f + turnOffsetX;
-        float rcy = lcy;
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        drawable.draw(canvas);
 
-        canvas.drawCircle(lcx, lcy, SUN_EYES_RADIUS, eyePaint);
-        canvas.drawCircle(rcx, rcy, SUN_EYES_RADIUS, eyePaint);
+        final SunBabyFrameMetrics metrics = drawable.getFrameMetrics();
+        if (metrics != null && metricsListener != null && metrics.getFramesDrawn() % metricsReportInterval == 0) {
+            metricsListener.onFrameMetrics(this, metrics);
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package com.zuck.swipe.sunbaby.view;
+
+import android.graphics.Paint;
+import android.text.TextPaint;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 一套按 {@link SunBabyStyle} 配置好的画笔，画笔配置相同的实例共用同一套，创建后不再修改。
+ * <p>
+ * 画笔只在创建时写入，之后只会被读取，因此可以同时在主线程与烘焙线程上使用。
+ * 眼睛以圆头的点绘制，线宽与眼睛的直径相同，因此画笔还与眼睛半径（随屏幕密度缩放）相关。
+ */
+final class SunBabyPaints {
+
+    /**
+     * 最多缓存的画笔套数
+     */
+    private static final int MAX_CACHED = 8;
+
+    private static final LinkedHashMap<SunBabyStyle, SunBabyPaints> cache = new LinkedHashMap<>(8, .75f, true);
+
+    /**
+     * 地平线与光芒的画笔
+     */
+    final Paint linePaint;
+
+    final Paint sunPaint;
+
+    /**
+     * 眼睛的画笔，线宽为眼睛的直径
+     */
+    final Paint eyePaint;
+
+    final TextPaint textPaint;
+
+    /**
+     * 绘制烘焙好的帧图集时使用的画笔，按前景色着色
+     */
+    final Paint atlasPaint;
+
+    private SunBabyPaints(SunBabyStyle style, float eyesRadius) {
+        linePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        linePaint.setStyle(Paint.Style.STROKE);
+        linePaint.setStrokeCap(Paint.Cap.ROUND);
+        linePaint.setStrokeJoin(Paint.Join.ROUND);
+        linePaint.setStrokeWidth(style.getLineStrokeWidth());
+        linePaint.setColor(style.getColor());
+
+        sunPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        sunPaint.setStyle(Paint.Style.STROKE);
+        sunPaint.setStrokeWidth(style.getSunStrokeWidth());
+        sunPaint.setColor(style.getColor());
+
+        eyePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        eyePaint.setStyle(Paint.Style.STROKE);
+        eyePaint.setStrokeCap(Paint.Cap.ROUND);
+        eyePaint.setStrokeWidth(eyesRadius * 2);
+        eyePaint.setColor(style.getColor());
+
+        textPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        textPaint.setStyle(Paint.Style.FILL_AND_STROKE);
+        textPaint.setStrokeWidth(1);
+        textPaint.setTextSize(style.getTextSize());
+        textPaint.setColor(style.getTextColor());
+        textPaint.setTextAlign(Paint.Align.CENTER);
+
+        atlasPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+        atlasPaint.setColor(style.getColor());
+    }
+
+    /**
+     * 眼睛画笔是否与该眼睛半径匹配
+     */
+    boolean hasEyesRadius(float eyesRadius) {
+        return eyePaint.getStrokeWidth() == eyesRadius * 2;
+    }
+
+    /**
+     * 获取与样式、眼睛半径匹配的画笔，没有时创建
+     * @param eyesRadius 眼睛的半径，单位像素
+     */
+    static SunBabyPaints obtain(SunBabyStyle style, float eyesRadius) {
+        synchronized (cache) {
+            for (Map.Entry<SunBabyStyle, SunBabyPaints> entry : cache.entrySet()) {
+                if (entry.getKey().hasSamePaints(style) && entry.getValue().hasEyesRadius(eyesRadius)) {
+                    // 按访问顺序排列，重新读取一次以标记为最近使用
+                    return cache.get(entry.getKey());
+                }
+            }
+
+            final SunBabyPaints paints = new SunBabyPaints(style, eyesRadius);
+            cache.put(style, paints);
+            final Iterator<SunBabyStyle> iterator = cache.keySet().iterator();
+            while (cache.size() > MAX_CACHED && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+            return paints;
+        }
+    }
+
+}
@@ -0,0 +1,198 @@
+package com.zuck.swipe.sunbaby.view;
+
+import android.graphics.Canvas;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.view.Choreographer;
+import android.view.SurfaceHolder;
+
+import com.zuck.swipe.sunbaby.view.model.MotionPolicy;
+import com.zuck.swipe.sunbaby.view.model.SunFrame;
+
+/**
+ * {@link SunBabyLoadingSurfaceView} 的渲染线程。
+ * <p>
+ * 线程拥有自己的 Looper 与 Choreographer，每帧计算画面并直接绘制到 Surface 上，主线程阻塞时动画不受影响。
+ * 渲染器只在本线程内访问；主线程通过 post 到本线程的消息修改尺寸、样式与暂停状态。
+ * 系统关闭动画时按 {@link MotionPolicy} 绘制静止画面（不再请求帧回调）或以低帧率缓慢起伏。
+ */
+final class SunBabyRenderThread extends HandlerThread implements Choreographer.FrameCallback {
+
+    private final SurfaceHolder holder;
+
+    private final SunBabyRenderer renderer = new SunBabyRenderer();
+
+    private SunFrame frame;
+
+    private final MotionPolicy motionPolicy = new MotionPolicy();
+
+    private Handler handler;
+
+    private Choreographer choreographer;
+
+    private boolean hasSize;
+
+    private boolean paused;
+
+    private boolean posted;
+
+    /**
+     * 当前的播放时间，主线程在线程结束后读取，用于下次创建 Surface 时继续播放
+     */
+    private volatile long playTime;
+
+    private long startTimeNanos = -1;
+
+    /**
+     * @param reducedMotion 系统关闭动画时的画面，见 {@link MotionPolicy#setReducedMotion(int)}
+     * @param durationScale 系统的动画时长缩放比例
+     */
+    SunBabyRenderThread(SurfaceHolder holder, float scale, SunBabyStyle style, long playTime, int reducedMotion, float durationScale) {
+        super("SunBabyRender", Process.THREAD_PRIORITY_DISPLAY);
+        this.holder = holder;
+        this.playTime = playTime;
+        motionPolicy.setReducedMotion(reducedMotion);
+        motionPolicy.setDurationScale(durationScale);
+        renderer.getModel().setScale(scale);
+        renderer.setStyle(style);
+        frame = renderer.getModel().newFrame();
+    }
+
+    @Override
+    protected void onLooperPrepared() {
+        choreographer = Choreographer.getInstance();
+    }
+
+    /**
+     * 启动线程，之后才能调用其他方法
+     */
+    void startRendering() {
+        start();
+        handler = new Handler(getLooper());
+    }
+
+    void setSurfaceSize(final int width, final int height) {
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                renderer.setSize(width, height);
+                hasSize = true;
+                renderFrame();
+                scheduleFrame();
+            }
+        });
+    }
+
+    void setStyle(final SunBabyStyle style) {
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                final int rayCount = renderer.getStyle().getRayCount();
+                renderer.setStyle(style);
+                if (rayCount != style.getRayCount()) {
+                    frame = renderer.getModel().newFrame();
+                }
+                if (paused || !motionPolicy.needsFrames()) renderFrame();
+            }
+        });
+    }
+
+    void setReducedMotion(final int mode) {
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                motionPolicy.setReducedMotion(mode);
+                startTimeNanos = -1;
+                renderFrame();
+                scheduleFrame();
+            }
+        });
+    }
+
+    void setPaused(final boolean paused) {
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                SunBabyRenderThread.this.paused = paused;
+                startTimeNanos = -1;
+                if (paused) {
+                    choreographer.removeFrameCallback(SunBabyRenderThread.this);
+                    posted = false;
+                } else {
+                    scheduleFrame();
+                }
+            }
+        });
+    }
+
+    long getPlayTime() {
+        return playTime;
+    }
+
+    /**
+     * 停止绘制并结束线程，返回时不会再访问 Surface，必须在 surfaceDestroyed 返回前调用
+     */
+    void quitAndWait() {
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                choreographer.removeFrameCallback(SunBabyRenderThread.this);
+                posted = false;
+                getLooper().quit();
+            }
+        });
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void scheduleFrame() {
+        if (posted || paused || !hasSize || !motionPolicy.needsFrames()) return;
+
+        posted = true;
+        if (motionPolicy.isReduced()) {
+            choreographer.postFrameCallbackDelayed(this, 1000 / MotionPolicy.PULSE_FRAME_RATE);
+        } else {
+            choreographer.postFrameCallback(this);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        posted = false;
+        if (startTimeNanos < 0) {
+            startTimeNanos = frameTimeNanos - motionPolicy.toElapsedMillis(playTime) * 1000000;
+        }
+        playTime = motionPolicy.toPlayTime((frameTimeNanos - startTimeNanos) / 1000000);
+
+        renderFrame();
+        scheduleFrame();
+    }
+
+    private void renderFrame() {
+        if (!hasSize) return;
+
+        motionPolicy.frameAt(renderer.getModel(), playTime, frame);
+
+        final Canvas canvas = holder.lockCanvas();
+        if (canvas == null) return;
+        try {
+            canvas.drawColor(renderer.getStyle().getBackgroundColor());
+            renderer.draw(canvas, frame);
+        } finally {
+            holder.unlockCanvasAndPost(canvas);
+        }
+    }
+
+}
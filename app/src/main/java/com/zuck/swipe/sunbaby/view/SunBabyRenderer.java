@@ -0,0 +1,243 @@
+package com.zuck.swipe.sunbaby.view;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Picture;
+import android.graphics.RectF;
+import android.os.Build;
+
+import com.zuck.swipe.sunbaby.view.model.LineBatch;
+import com.zuck.swipe.sunbaby.view.model.SunBabyModel;
+import com.zuck.swipe.sunbaby.view.model.SunCanvas;
+import com.zuck.swipe.sunbaby.view.model.SunFrame;
+import com.zuck.swipe.sunbaby.view.model.SunPainter;
+
+/**
+ * 太阳宝宝的绘制逻辑：把 {@link SunBabyModel} 算出的 {@link SunFrame} 绘制到 Canvas 上。
+ * <p>
+ * 每个实例拥有独立的模型，画笔由样式相同的实例共用；可以在非主线程上使用（例如离屏烘焙帧图集）。
+ * <p>
+ * 画笔相同的图形合并绘制：地平线与光芒合并成一次 drawLines，两只眼睛合并成一次圆头的 drawPoints，
+ * 每帧只有圆弧、眼睛、线段三次绘制调用；静态图层只剩文字。
+ */
+final class SunBabyRenderer {
+
+    private final SunBabyModel model = new SunBabyModel();
+
+    private SunBabyStyle style = SunBabyStyle.DEFAULT;
+
+    /**
+     * 与样式匹配的画笔，可能与其他实例共用，不能修改
+     */
+    private SunBabyPaints paints = SunBabyPaints.obtain(style, model.getEyesRadius());
+
+    /**
+     * 文字坐标点x,y值
+     */
+    private float textX, textY;
+
+    /**
+     * 文字所占的区域，不在重绘区域内时跳过文字绘制
+     */
+    private final RectF textBounds = new RectF();
+
+    /**
+     * 录制好的文字图层，尺寸、颜色、线宽或文字变化时重新录制
+     */
+    private Picture textLayer;
+
+    /**
+     * 合并后的地平线与光芒，光芒数量变化时重新创建
+     */
+    private LineBatch lineBatch = new LineBatch(model.getRayCount());
+
+    private final CanvasAdapter canvasAdapter = new CanvasAdapter();
+
+    SunBabyModel getModel() {
+        return model;
+    }
+
+    /**
+     * 绘制帧图集的画笔，与其他实例共用，不能修改
+     */
+    Paint getAtlasPaint() {
+        return paints.atlasPaint;
+    }
+
+    SunBabyStyle getStyle() {
+        return style;
+    }
+
+    /**
+     * 切换样式，只重新计算受影响的数据
+     */
+    void setStyle(SunBabyStyle style) {
+        final SunBabyStyle old = this.style;
+        if (old.equals(style)) return;
+
+        this.style = style;
+        if (!old.hasSamePaints(style)) {
+            paints = SunBabyPaints.obtain(style, model.getEyesRadius());
+        }
+        model.setStrokeWidths(style.getLineStrokeWidth(), style.getSunStrokeWidth());
+        model.setRayCount(style.getRayCount());
+        if (!lineBatch.fits(model)) {
+            lineBatch = new LineBatch(model.getRayCount());
+        }
+        if (!old.getScript().equals(style.getScript())) {
+            model.setScript(style.getScript());
+        }
+        model.setDurations(style.getCycleDuration(), style.getSpinDuration());
+
+        if (!old.hasSamePaints(style) || !old.getText().equals(style.getText())) {
+            layoutText();
+        }
+    }
+
+    /**
+     * 根据绘制区域的尺寸计算几何数据
+     */
+    void setSize(int width, int height) {
+        model.setSize(width, height);
+        if (!paints.hasEyesRadius(model.getEyesRadius())) {
+            paints = SunBabyPaints.obtain(style, model.getEyesRadius());
+        }
+        layoutText();
+    }
+
+    /**
+     * 计算文字的位置，同时作废录制好的静态图层
+     */
+    private void layoutText() {
+        final Paint textPaint = paints.textPaint;
+        final float lineStartY = model.getLineStartY();
+        textX = model.getWidth() * .5f;
+        textY = lineStartY + (model.getHeight() - lineStartY) * .5f + Math.abs(textPaint.descent() + textPaint.ascent()) * .5f;
+        final float halfTextWidth = textPaint.measureText(style.getText()) * .5f;
+        textBounds.set(textX - halfTextWidth, textY + textPaint.ascent(), textX + halfTextWidth, textY + textPaint.descent());
+
+        textLayer = null;
+    }
+
+    /**
+     * 帧中会变化的内容的包围盒
+     */
+    static void getDirtyBounds(SunFrame frame, RectF out) {
+        out.set(frame.boundsLeft, frame.boundsTop, frame.boundsRight, frame.boundsBottom);
+    }
+
+    /**
+     * 绘制文字、地平线与太阳，地平线与光芒合并绘制
+     */
+    void draw(Canvas canvas, SunFrame frame) {
+        drawTextLayer(canvas);
+        SunPainter.drawFrame(model, frame, lineBatch, canvasAdapter.wrap(canvas));
+        canvasAdapter.release();
+    }
+
+    /**
+     * 绘制每帧都相同的地平线与文字，播放烘焙好的帧图集时使用
+     */
+    void drawStaticLayer(Canvas canvas) {
+        drawHorizon(canvas);
+        drawTextLayer(canvas);
+    }
+
+    /**
+     * 绘制文字。
+     * <p>
+     * 第一次绘制时录制成 {@link Picture}，之后直接回放，无需重新排版；只重绘太阳区域时文字不在裁剪区域内，直接跳过。
+     * Android 6.0 之前的硬件加速画布不支持 drawPicture，仍然直接绘制。
+     */
+    private void drawTextLayer(Canvas canvas) {
+        if (canvas.quickReject(textBounds, Canvas.EdgeType.AA)) return;
+
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M && canvas.isHardwareAccelerated()) {
+            drawUnderLineView(canvas);
+            return;
+        }
+
+        if (textLayer == null) {
+            final Picture picture = new Picture();
+            final Canvas recordingCanvas = picture.beginRecording(model.getWidth(), model.getHeight());
+            drawUnderLineView(recordingCanvas);
+            picture.endRecording();
+            textLayer = picture;
+        }
+        canvas.drawPicture(textLayer);
+    }
+
+    private void drawHorizon(Canvas canvas) {
+        SunPainter.drawHorizon(model, canvasAdapter.wrap(canvas));
+        canvasAdapter.release();
+    }
+
+    /**
+     * 绘制太阳圆弧、眼睛与光芒，不含地平线，用于烘焙帧图集；地平线以下的部分通过裁剪区域遮挡，软硬件画布上效果一致
+     */
+    void drawSun(Canvas canvas, SunFrame frame) {
+        SunPainter.drawSun(model, frame, canvasAdapter.wrap(canvas));
+        canvasAdapter.release();
+    }
+
+    private void drawUnderLineView(Canvas canvas) {
+        canvas.drawText(style.getText(), textX, textY, paints.textPaint);
+    }
+
+    /**
+     * 把 {@link SunCanvas} 的调用转发到 Android Canvas，并选用对应的画笔
+     */
+    private final class CanvasAdapter implements SunCanvas {
+
+        private Canvas canvas;
+
+        private final RectF rectF = new RectF();
+
+        private int saveCount;
+
+        SunCanvas wrap(Canvas canvas) {
+            this.canvas = canvas;
+            return this;
+        }
+
+        void release() {
+            canvas = null;
+        }
+
+        @Override
+        public void clipRect(float left, float top, float right, float bottom) {
+            saveCount = canvas.save();
+            canvas.clipRect(left, top, right, bottom);
+        }
+
+        @Override
+        public void restore() {
+            canvas.restoreToCount(saveCount);
+        }
+
+        @Override
+        public void drawHorizon(float startX, float startY, float stopX, float stopY) {
+            canvas.drawLine(startX, startY, stopX, stopY, paints.linePaint);
+        }
+
+        @Override
+        public void drawArc(float left, float top, float right, float bottom, float startAngle, float sweepAngle) {
+            rectF.set(left, top, right, bottom);
+            canvas.drawArc(rectF, startAngle, sweepAngle, false, paints.sunPaint);
+        }
+
+        /**
+         * 眼睛画笔的线宽为眼睛的直径，圆头的点即为实心圆
+         */
+        @Override
+        public void drawEyes(float[] points, int offset, int count, float radius) {
+            canvas.drawPoints(points, offset, count, paints.eyePaint);
+        }
+
+        @Override
+        public void drawLines(float[] points, int offset, int count) {
+            canvas.drawLines(points, offset, count, paints.linePaint);
+        }
+    }
+
+}
@@ -0,0 +1,340 @@
+package com.zuck.swipe.sunbaby.view;
+
+import com.zuck.swipe.sunbaby.view.model.SunBabyModel;
+import com.zuck.swipe.sunbaby.view.model.SunBabyScript;
+import com.zuck.swipe.sunbaby.view.model.SunBabyTimeline;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * 太阳宝宝的外观配置：颜色、线宽、光芒数量、动画时长与文字。
+ * <p>
+ * 创建后不可修改，内容相同的样式共用同一个实例与同一套画笔。通过 {@link Builder} 创建，
+ * 修改已有样式时用 {@link #buildUpon()} 复制一份再修改。
+ * <p>
+ * 尺寸的单位都是像素，默认值对应 {@link SunBabyModel#DESIGN_DENSITY} 倍密度的屏幕；
+ * View 会把未设置的尺寸换算到屏幕密度，因此修改样式时应基于 {@link SunBabyLoadingView#getStyle()} 的结果。
+ */
+public final class SunBabyStyle {
+
+    /**
+     * 默认的前景色（地平线、太阳、光芒与眼睛）
+     */
+    public static final int DEFAULT_COLOR = 0xFF7A6021;
+
+    /**
+     * 默认的背景色
+     */
+    public static final int DEFAULT_BACKGROUND_COLOR = 0xFFF4C042;
+
+    /**
+     * 默认的文字与文字大小
+     */
+    public static final String DEFAULT_TEXT = "sunrise";
+
+    public static final float DEFAULT_TEXT_SIZE = 20;
+
+    /**
+     * 最近创建的样式，相同配置的 View 共用同一个实例
+     */
+    private static final int MAX_INTERNED = 8;
+
+    private static final LinkedHashMap<SunBabyStyle, SunBabyStyle> interned = new LinkedHashMap<>(8, .75f, true);
+
+    public static final SunBabyStyle DEFAULT = new Builder().build();
+
+    private final int color;
+
+    private final int textColor;
+
+    private final int backgroundColor;
+
+    private final float lineStrokeWidth;
+
+    private final float sunStrokeWidth;
+
+    private final int rayCount;
+
+    private final long cycleDuration;
+
+    private final long spinDuration;
+
+    private final SunBabyScript script;
+
+    private final String text;
+
+    private final float textSize;
+
+    private SunBabyStyle(Builder builder) {
+        color = builder.color;
+        textColor = builder.textColor;
+        backgroundColor = builder.backgroundColor;
+        lineStrokeWidth = builder.lineStrokeWidth;
+        sunStrokeWidth = builder.sunStrokeWidth;
+        rayCount = builder.rayCount;
+        cycleDuration = builder.cycleDuration;
+        spinDuration = builder.spinDuration;
+        script = builder.script;
+        text = builder.text;
+        textSize = builder.textSize;
+    }
+
+    public int getColor() {
+        return color;
+    }
+
+    public int getTextColor() {
+        return textColor;
+    }
+
+    public int getBackgroundColor() {
+        return backgroundColor;
+    }
+
+    public float getLineStrokeWidth() {
+        return lineStrokeWidth;
+    }
+
+    public float getSunStrokeWidth() {
+        return sunStrokeWidth;
+    }
+
+    public int getRayCount() {
+        return rayCount;
+    }
+
+    public long getCycleDuration() {
+        return cycleDuration;
+    }
+
+    public long getSpinDuration() {
+        return spinDuration;
+    }
+
+    /**
+     * 动画脚本，按 {@link #getCycleDuration()} 与 {@link #getSpinDuration()} 缩放后播放
+     */
+    public SunBabyScript getScript() {
+        return script;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public float getTextSize() {
+        return textSize;
+    }
+
+    /**
+     * 以当前样式为基础创建 {@link Builder}
+     */
+    public Builder buildUpon() {
+        return new Builder(this);
+    }
+
+    /**
+     * 与另一个样式的画笔配置（颜色、线宽与文字大小）是否相同
+     */
+    boolean hasSamePaints(SunBabyStyle other) {
+        return color == other.color
+                && textColor == other.textColor
+                && lineStrokeWidth == other.lineStrokeWidth
+                && sunStrokeWidth == other.sunStrokeWidth
+                && textSize == other.textSize;
+    }
+
+    /**
+     * 与另一个样式的几何数据与动画（线宽、光芒数量、动画时长）是否相同，只有这些会影响帧图集
+     */
+    boolean hasSameGeometry(SunBabyStyle other) {
+        return lineStrokeWidth == other.lineStrokeWidth
+                && sunStrokeWidth == other.sunStrokeWidth
+                && rayCount == other.rayCount
+                && cycleDuration == other.cycleDuration
+                && spinDuration == other.spinDuration
+                && script.equals(other.script);
+    }
+
+    /**
+     * 影响帧图集内容的参数组成的键
+     */
+    String getGeometryKey() {
+        return lineStrokeWidth + "," + sunStrokeWidth + "," + rayCount + "," + cycleDuration + "," + spinDuration + "," + script.getKey();
+    }
+
+    /**
+     * 返回与 style 内容相同的已有实例，没有时缓存 style 本身
+     */
+    private static SunBabyStyle intern(SunBabyStyle style) {
+        synchronized (interned) {
+            final SunBabyStyle cached = interned.get(style);
+            if (cached != null) return cached;
+
+            interned.put(style, style);
+            final Iterator<SunBabyStyle> iterator = interned.keySet().iterator();
+            while (interned.size() > MAX_INTERNED && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+            return style;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SunBabyStyle)) return false;
+
+        SunBabyStyle style = (SunBabyStyle) o;
+        return hasSamePaints(style)
+                && hasSameGeometry(style)
+                && backgroundColor == style.backgroundColor
+                && text.equals(style.text);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = color;
+        result = 31 * result + textColor;
+        result = 31 * result + backgroundColor;
+        result = 31 * result + Float.floatToIntBits(lineStrokeWidth);
+        result = 31 * result + Float.floatToIntBits(sunStrokeWidth);
+        result = 31 * result + rayCount;
+        result = 31 * result + (int) (cycleDuration ^ (cycleDuration >>> 32));
+        result = 31 * result + (int) (spinDuration ^ (spinDuration >>> 32));
+        result = 31 * result + script.hashCode();
+        result = 31 * result + text.hashCode();
+        result = 31 * result + Float.floatToIntBits(textSize);
+        return result;
+    }
+
+    public static final class Builder {
+
+        private int color = DEFAULT_COLOR;
+
+        private int textColor = DEFAULT_COLOR;
+
+        private int backgroundColor = DEFAULT_BACKGROUND_COLOR;
+
+        private float lineStrokeWidth = SunBabyModel.DEFAULT_LINE_STROKE_WIDTH;
+
+        private float sunStrokeWidth = SunBabyModel.DEFAULT_SUN_STROKE_WIDTH;
+
+        private int rayCount = SunBabyModel.DEFAULT_RAY_COUNT;
+
+        private long cycleDuration = SunBabyTimeline.CYCLE_DURATION;
+
+        private long spinDuration = SunBabyTimeline.SPIN_DURATION;
+
+        private SunBabyScript script = SunBabyTimeline.SCRIPT;
+
+        private String text = DEFAULT_TEXT;
+
+        private float textSize = DEFAULT_TEXT_SIZE;
+
+        public Builder() {
+        }
+
+        Builder(SunBabyStyle style) {
+            color = style.color;
+            textColor = style.textColor;
+            backgroundColor = style.backgroundColor;
+            lineStrokeWidth = style.lineStrokeWidth;
+            sunStrokeWidth = style.sunStrokeWidth;
+            rayCount = style.rayCount;
+            cycleDuration = style.cycleDuration;
+            spinDuration = style.spinDuration;
+            script = style.script;
+            text = style.text;
+            textSize = style.textSize;
+        }
+
+        /**
+         * 地平线、太阳、光芒与眼睛的颜色
+         */
+        public Builder setColor(int color) {
+            this.color = color;
+            return this;
+        }
+
+        public Builder setTextColor(int textColor) {
+            this.textColor = textColor;
+            return this;
+        }
+
+        public Builder setBackgroundColor(int backgroundColor) {
+            this.backgroundColor = backgroundColor;
+            return this;
+        }
+
+        /**
+         * @param lineStrokeWidth 地平线与光芒的线宽，单位像素
+         * @param sunStrokeWidth 太阳圆弧的线宽，单位像素
+         */
+        public Builder setStrokeWidths(float lineStrokeWidth, float sunStrokeWidth) {
+            if (lineStrokeWidth <= 0 || sunStrokeWidth <= 0) {
+                throw new IllegalArgumentException("Stroke widths must be positive: " + lineStrokeWidth + ", " + sunStrokeWidth);
+            }
+            this.lineStrokeWidth = lineStrokeWidth;
+            this.sunStrokeWidth = sunStrokeWidth;
+            return this;
+        }
+
+        public Builder setRayCount(int rayCount) {
+            if (rayCount <= 0) {
+                throw new IllegalArgumentException("Ray count must be positive: " + rayCount);
+            }
+            this.rayCount = rayCount;
+            return this;
+        }
+
+        /**
+         * @param cycleDuration 一次升起落下循环的时长，单位毫秒
+         * @param spinDuration 阳光旋转一周的时长，单位毫秒
+         */
+        public Builder setDurations(long cycleDuration, long spinDuration) {
+            if (cycleDuration <= 0 || spinDuration <= 0) {
+                throw new IllegalArgumentException("Durations must be positive: " + cycleDuration + ", " + spinDuration);
+            }
+            this.cycleDuration = cycleDuration;
+            this.spinDuration = spinDuration;
+            return this;
+        }
+
+        /**
+         * 设置动画脚本，动画时长同时设为脚本本身的时长，之后可以再通过 {@link #setDurations(long, long)} 缩放
+         */
+        public Builder setScript(SunBabyScript script) {
+            if (script == null) {
+                throw new IllegalArgumentException("Script must not be null");
+            }
+            this.script = script;
+            cycleDuration = script.getCycleDuration();
+            spinDuration = script.getSpinDuration();
+            return this;
+        }
+
+        public Builder setText(String text) {
+            this.text = text != null ? text : "";
+            return this;
+        }
+
+        /**
+         * @param textSize 文字大小，单位像素
+         */
+        public Builder setTextSize(float textSize) {
+            if (textSize <= 0) {
+                throw new IllegalArgumentException("Text size must be positive: " + textSize);
+            }
+            this.textSize = textSize;
+            return this;
+        }
+
+        public SunBabyStyle build() {
+            return intern(new SunBabyStyle(this));
+        }
+    }
+
+}
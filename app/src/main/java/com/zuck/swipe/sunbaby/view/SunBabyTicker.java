@@ -0,0 +1,165 @@
+package com.zuck.swipe.sunbaby.view;
+
+import android.view.Choreographer;
+
+import com.zuck.swipe.sunbaby.view.model.SharedFrameCache;
+import com.zuck.swipe.sunbaby.view.model.SunBabyModel;
+import com.zuck.swipe.sunbaby.view.model.SunFrame;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+
+/**
+ * 进程内共享的动画时钟：所有登记的 {@link SunBabyDrawable} 由同一个 Choreographer 帧回调驱动，
+ * 无论有多少个实例，每帧只分发一次回调。
+ * <p>
+ * 相位同步的实例从同一个起点计算播放时间，中途加入的实例也与其他实例保持同一相位；
+ * 尺寸与几何参数相同的实例每帧共用一次计算出的画面。
+ * 所有实例都在跳帧或因画面静止延长唤醒间隔时，按最早需要绘制的实例延迟回调，与各自注册帧回调时一样省电。
+ * <p>
+ * 只持有 Drawable 的弱引用，即使没有正常注销也不会造成内存泄漏。所有方法只能在主线程调用。
+ */
+final class SunBabyTicker implements Choreographer.FrameCallback {
+
+    private static SunBabyTicker instance;
+
+    private final ArrayList<WeakReference<SunBabyDrawable>> drawables = new ArrayList<>();
+
+    /**
+     * 共享时钟的起点，即第一次分发帧回调的帧时间，-1 表示尚未开始
+     */
+    private long epochNanos = -1;
+
+    private boolean posted;
+
+    /**
+     * 已投递的帧回调是否延迟到了之后的垂直同步信号（所有实例都在延长唤醒间隔）
+     */
+    private boolean postedDelayed;
+
+    private final SharedFrameCache frameCache = new SharedFrameCache();
+
+    private SunBabyTicker() {
+    }
+
+    static SunBabyTicker getInstance() {
+        if (instance == null) {
+            instance = new SunBabyTicker();
+        }
+        return instance;
+    }
+
+    /**
+     * 登记 Drawable，下一帧开始由共享时钟驱动
+     */
+    void register(SunBabyDrawable drawable) {
+        if (indexOf(drawable) >= 0) return;
+
+        drawables.add(new WeakReference<>(drawable));
+        if (posted && postedDelayed) {
+            // 新登记的实例需要立即开始，不等待其他实例延长的唤醒间隔
+            Choreographer.getInstance().removeFrameCallback(this);
+            posted = false;
+        }
+        if (!posted) {
+            post(0);
+        }
+    }
+
+    void unregister(SunBabyDrawable drawable) {
+        final int index = indexOf(drawable);
+        if (index >= 0) {
+            drawables.remove(index);
+        }
+        if (drawables.isEmpty() && posted) {
+            posted = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+
+    /**
+     * 当前登记的 Drawable 数量
+     */
+    int size() {
+        return drawables.size();
+    }
+
+    boolean contains(SunBabyDrawable drawable) {
+        return indexOf(drawable) >= 0;
+    }
+
+    /**
+     * 共享的帧回调是否已投递、尚未执行
+     */
+    boolean isPosted() {
+        return posted;
+    }
+
+    /**
+     * 共享时钟的起点，相位同步的实例都从这一时刻开始计算播放时间
+     */
+    long getEpochNanos() {
+        return epochNanos;
+    }
+
+    /**
+     * 相位同步的实例共用帧缓存的键，尺寸、缩放比例与几何参数相同的实例画面相同
+     */
+    static String frameKey(int width, int height, float scale, SunBabyStyle style) {
+        return width + "x" + height + "*" + scale + "#" + style.getGeometryKey();
+    }
+
+    /**
+     * 取得这一帧中 key 对应的画面，同一帧内相同的键只计算一次，只能在 {@link SunBabyDrawable#onTick(long)} 中调用
+     */
+    SunFrame frameAt(String key, SunBabyModel model, long playTime, SunFrame out) {
+        return frameCache.frameAt(key, model, playTime, out);
+    }
+
+    /**
+     * 上一帧中真正计算画面的次数
+     */
+    int getFrameComputeCount() {
+        return frameCache.getComputeCount();
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        posted = false;
+        if (epochNanos < 0) {
+            epochNanos = frameTimeNanos;
+        }
+
+        long delayMillis = Long.MAX_VALUE;
+        frameCache.beginFrame();
+        for (int i = drawables.size() - 1; i >= 0; i--) {
+            final SunBabyDrawable drawable = drawables.get(i).get();
+            if (drawable == null) {
+                drawables.remove(i);
+            } else {
+                drawable.onTick(frameTimeNanos);
+                delayMillis = Math.min(delayMillis, drawable.getNextFrameDelayMillis(frameTimeNanos));
+            }
+        }
+        frameCache.endFrame();
+
+        // 所有实例都不需要下一个垂直同步信号时（跳帧或画面静止），按最早需要绘制的实例延迟投递
+        if (!drawables.isEmpty() && !posted) {
+            post(delayMillis);
+        }
+    }
+
+    private void post(long delayMillis) {
+        posted = true;
+        postedDelayed = delayMillis > 0;
+        Choreographer.getInstance().postFrameCallbackDelayed(this, delayMillis);
+    }
+
+    private int indexOf(SunBabyDrawable drawable) {
+        for (int i = 0; i < drawables.size(); i++) {
+            if (drawables.get(i).get() == drawable) return i;
+        }
+        return -1;
+    }
+
+}
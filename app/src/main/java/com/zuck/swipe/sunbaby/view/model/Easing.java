@@ -0,0 +1,60 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+/**
+ * 关键帧之间的插值曲线，作用于到达某个关键帧之前的那一段
+ */
+public enum Easing {
+
+    /**
+     * 匀速
+     */
+    LINEAR,
+
+    /**
+     * 由慢到快，相当于 {@code AccelerateDecelerateInterpolator} 的前半段
+     */
+    SINE_IN,
+
+    /**
+     * 由快到慢，相当于 {@code AccelerateDecelerateInterpolator} 的后半段
+     */
+    SINE_OUT,
+
+    /**
+     * 先加速后减速，与 {@code AccelerateDecelerateInterpolator} 相同
+     */
+    SINE_IN_OUT,
+
+    /**
+     * 保持上一个关键帧的值，到达关键帧时突变，用于眨眼等开关型的轨道
+     */
+    STEP;
+
+    /**
+     * 各曲线的编号，与 {@link #ordinal()} 相同，编译后的脚本中只保存编号
+     */
+    private static final int ID_SINE_IN = 1, ID_SINE_OUT = 2, ID_SINE_IN_OUT = 3, ID_STEP = 4;
+
+    /**
+     * 按编号计算插值，编号即 {@link #ordinal()}，每帧都会调用，不分配任何对象
+     * @param fraction 在这一段中的进度，取值 [0, 1)
+     */
+    static float interpolate(int easing, float fraction) {
+        switch (easing) {
+            case ID_SINE_IN:
+                return 1 - (float) Math.cos(fraction * Math.PI * .5);
+            case ID_SINE_OUT:
+                return (float) Math.sin(fraction * Math.PI * .5);
+            case ID_SINE_IN_OUT:
+                return (float) (Math.cos((fraction + 1) * Math.PI) / 2.0f) + 0.5f;
+            case ID_STEP:
+                return 0;
+            default:
+                return fraction;
+        }
+    }
+
+    public float interpolate(float fraction) {
+        return interpolate(ordinal(), fraction);
+    }
+}
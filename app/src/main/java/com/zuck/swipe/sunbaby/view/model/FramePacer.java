@@ -0,0 +1,158 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+/**
+ * 按目标帧率挑选需要绘制的垂直同步信号，其余信号直接跳过。
+ * <p>
+ * 跳过的只是绘制，播放时间仍然取自实际的帧时间，因此动画速度不受帧率影响。
+ * 计算出的画面与当前画面几乎相同而没有重绘时，唤醒间隔逐次翻倍，画面重新变化后恢复。
+ */
+public final class FramePacer {
+
+    /**
+     * 目标帧率：与屏幕刷新率相同
+     */
+    public static final int FRAME_RATE_NATIVE = 0;
+
+    /**
+     * 画面没有变化时唤醒间隔的上限，与减弱动态模式的 10fps 相同
+     */
+    public static final long MAX_IDLE_INTERVAL_NANOS = 100000000L;
+
+    private final long vsyncIntervalNanos;
+
+    private int targetFrameRate = FRAME_RATE_NATIVE;
+
+    /**
+     * 额外的帧率上限（例如省电模式），{@link #FRAME_RATE_NATIVE} 表示不限制
+     */
+    private int frameRateCap = FRAME_RATE_NATIVE;
+
+    private long intervalNanos;
+
+    /**
+     * 画面没有变化时延长后的唤醒间隔，0 表示画面在变化，按 {@link #intervalNanos} 唤醒
+     */
+    private long idleIntervalNanos;
+
+    private long lastFrameTimeNanos = -1;
+
+    /**
+     * @param vsyncIntervalNanos 屏幕刷新的间隔
+     */
+    public FramePacer(long vsyncIntervalNanos) {
+        if (vsyncIntervalNanos <= 0) {
+            throw new IllegalArgumentException("Vsync interval must be positive: " + vsyncIntervalNanos);
+        }
+        this.vsyncIntervalNanos = vsyncIntervalNanos;
+        updateInterval();
+    }
+
+    /**
+     * 设置目标帧率
+     * @param frameRate 每秒的帧数，{@link #FRAME_RATE_NATIVE} 表示与屏幕刷新率相同
+     */
+    public void setTargetFrameRate(int frameRate) {
+        if (frameRate < 0) {
+            throw new IllegalArgumentException("Frame rate must not be negative: " + frameRate);
+        }
+        targetFrameRate = frameRate;
+        updateInterval();
+    }
+
+    public int getTargetFrameRate() {
+        return targetFrameRate;
+    }
+
+    /**
+     * 设置额外的帧率上限，与目标帧率取较低者
+     * @param frameRate 每秒的帧数，{@link #FRAME_RATE_NATIVE} 表示不限制
+     */
+    public void setFrameRateCap(int frameRate) {
+        if (frameRate < 0) {
+            throw new IllegalArgumentException("Frame rate must not be negative: " + frameRate);
+        }
+        frameRateCap = frameRate;
+        updateInterval();
+    }
+
+    /**
+     * 实际绘制两帧之间的最小间隔
+     */
+    public long getIntervalNanos() {
+        return intervalNanos;
+    }
+
+    /**
+     * 下一帧期望的间隔：画面在变化时为 {@link #getIntervalNanos()}，没有变化时为延长后的间隔
+     */
+    public long getCurrentIntervalNanos() {
+        return Math.max(intervalNanos, idleIntervalNanos);
+    }
+
+    private void updateInterval() {
+        long interval = vsyncIntervalNanos;
+        if (targetFrameRate > 0) {
+            interval = Math.max(interval, 1000000000L / targetFrameRate);
+        }
+        if (frameRateCap > 0) {
+            interval = Math.max(interval, 1000000000L / frameRateCap);
+        }
+        intervalNanos = interval;
+    }
+
+    /**
+     * 判断这一帧是否需要绘制，需要时记录为最近一次绘制的帧。画面没有变化时按延长后的间隔判断
+     * @param frameTimeNanos 帧时间
+     */
+    public boolean shouldRender(long frameTimeNanos) {
+        // 允许半个垂直同步信号的抖动，避免恰好落在边界上的帧被跳过
+        if (lastFrameTimeNanos >= 0
+                && frameTimeNanos - lastFrameTimeNanos < getCurrentIntervalNanos() - vsyncIntervalNanos / 2) {
+            return false;
+        }
+        lastFrameTimeNanos = frameTimeNanos;
+        return true;
+    }
+
+    /**
+     * 记录 {@link #shouldRender(long)} 通过的帧是否实际重绘。
+     * 连续没有重绘时下一次唤醒的间隔逐次翻倍，直到 {@link #MAX_IDLE_INTERVAL_NANOS}；重绘后恢复为正常间隔
+     * @param changed 画面是否变化并重绘
+     */
+    public void onFrameResult(boolean changed) {
+        if (changed) {
+            idleIntervalNanos = 0;
+        } else {
+            final long interval = Math.max(idleIntervalNanos, intervalNanos);
+            idleIntervalNanos = Math.max(intervalNanos, Math.min(interval * 2, MAX_IDLE_INTERVAL_NANOS));
+        }
+    }
+
+    /**
+     * 绘制一帧之后，距离下一次需要唤醒的时间，期间的垂直同步信号无需回调
+     * @return 延迟的毫秒数
+     */
+    public long getNextFrameDelayMillis() {
+        return Math.max(0, (getCurrentIntervalNanos() - vsyncIntervalNanos) / 1000000);
+    }
+
+    /**
+     * 在 frameTimeNanos 这一帧之后，距离下一次需要唤醒的时间，这一帧被跳过时同样适用
+     * @return 延迟的毫秒数，尚未绘制过任何一帧时为 0
+     */
+    public long getNextFrameDelayMillis(long frameTimeNanos) {
+        if (lastFrameTimeNanos < 0) return 0;
+
+        final long remaining = lastFrameTimeNanos + getCurrentIntervalNanos() - frameTimeNanos;
+        return Math.max(0, (remaining - vsyncIntervalNanos) / 1000000);
+    }
+
+    /**
+     * 动画暂停后重新开始，下一帧立即绘制
+     */
+    public void reset() {
+        lastFrameTimeNanos = -1;
+        idleIntervalNanos = 0;
+    }
+
+}
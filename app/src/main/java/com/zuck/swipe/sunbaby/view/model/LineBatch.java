@@ -0,0 +1,43 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+/**
+ * 地平线与光芒使用同一支画笔，合并成一组线段后只需一次 drawLines。不分配任何对象。
+ */
+public final class LineBatch {
+
+    /**
+     * 依次存放地平线与地平线以上的光芒，每条线段占 4 个值，有效长度为 {@link #pointCount}
+     */
+    public final float[] points;
+
+    public int pointCount;
+
+    /**
+     * @param rayCount 光芒的数量
+     */
+    public LineBatch(int rayCount) {
+        points = new float[(rayCount + 1) * 4];
+    }
+
+    /**
+     * 能否容纳 model 的光芒
+     */
+    public boolean fits(SunBabyModel model) {
+        return points.length == (model.getRayCount() + 1) * 4;
+    }
+
+    /**
+     * 按 frame 生成线段
+     */
+    public void update(SunBabyModel model, SunFrame frame) {
+        final float lineStartX = model.getLineStartX();
+        final float lineStartY = model.getLineStartY();
+        points[0] = lineStartX;
+        points[1] = lineStartY;
+        points[2] = lineStartX + model.getLineLength();
+        points[3] = lineStartY;
+        System.arraycopy(frame.rayPoints, 0, points, 4, frame.rayPointCount);
+        pointCount = frame.rayPointCount + 4;
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+/**
+ * 根据系统的动画时长缩放比例决定如何播放动画。
+ * <p>
+ * 缩放比例不为 0 时按比例放慢或加快播放；为 0（开发者选项关闭动画，或无障碍设置中移除动画）时切换到减弱动态模式：
+ * 静止的画面，或者以很低的帧率缓慢起伏，光芒与眼睛都保持不动。
+ * 静止画面不需要任何帧回调，不会因为时长为 0 而反复请求下一帧。
+ */
+public final class MotionPolicy {
+
+    /**
+     * 忽略系统设置，始终正常播放
+     */
+    public static final int REDUCED_MOTION_NONE = 0;
+
+    /**
+     * 系统关闭动画时显示静止的画面：太阳升到最高处，睁着眼睛
+     */
+    public static final int REDUCED_MOTION_STATIC = 1;
+
+    /**
+     * 系统关闭动画时以很低的帧率缓慢起伏
+     */
+    public static final int REDUCED_MOTION_PULSE = 2;
+
+    /**
+     * 缓慢起伏的帧率
+     */
+    public static final int PULSE_FRAME_RATE = 10;
+
+    /**
+     * 缓慢起伏一次的时长
+     */
+    public static final long PULSE_DURATION = 4000;
+
+    /**
+     * 缓慢起伏时太阳最低处对应的进度
+     */
+    static final float PULSE_MIN_PROGRESS = .8f;
+
+    private int reducedMotion = REDUCED_MOTION_STATIC;
+
+    private float durationScale = 1;
+
+    /**
+     * @param mode {@link #REDUCED_MOTION_NONE}、{@link #REDUCED_MOTION_STATIC} 或 {@link #REDUCED_MOTION_PULSE}
+     */
+    public void setReducedMotion(int mode) {
+        if (mode != REDUCED_MOTION_NONE && mode != REDUCED_MOTION_STATIC && mode != REDUCED_MOTION_PULSE) {
+            throw new IllegalArgumentException("Unknown reduced motion mode: " + mode);
+        }
+        reducedMotion = mode;
+    }
+
+    public int getReducedMotion() {
+        return reducedMotion;
+    }
+
+    /**
+     * 设置系统的动画时长缩放比例，负数按 0 处理，NaN 按 1 处理
+     */
+    public void setDurationScale(float scale) {
+        durationScale = scale != scale ? 1 : Math.max(0, scale);
+    }
+
+    public float getDurationScale() {
+        return durationScale;
+    }
+
+    /**
+     * 是否处于减弱动态模式
+     */
+    public boolean isReduced() {
+        return reducedMotion != REDUCED_MOTION_NONE && durationScale == 0;
+    }
+
+    /**
+     * 是否需要逐帧更新画面；为 false 时画面静止，不必注册帧回调
+     */
+    public boolean needsFrames() {
+        return !isReduced() || reducedMotion == REDUCED_MOTION_PULSE;
+    }
+
+    /**
+     * 帧率上限，{@link FramePacer#FRAME_RATE_NATIVE} 表示不限制
+     */
+    public int getFrameRateCap() {
+        return isReduced() ? PULSE_FRAME_RATE : FramePacer.FRAME_RATE_NATIVE;
+    }
+
+    /**
+     * 把实际经过的时间换算为播放时间；缩放比例为 0 时不缩放，不会出现除以 0
+     * @param elapsedMillis 实际经过的时间，单位毫秒
+     */
+    public long toPlayTime(long elapsedMillis) {
+        final float scale = timeScale();
+        return scale == 1 ? elapsedMillis : (long) (elapsedMillis / scale);
+    }
+
+    /**
+     * {@link #toPlayTime(long)} 的逆运算，用于从某一播放时间继续播放
+     */
+    public long toElapsedMillis(long playTime) {
+        final float scale = timeScale();
+        return scale == 1 ? playTime : (long) (playTime * scale);
+    }
+
+    private float timeScale() {
+        return isReduced() || durationScale == 0 ? 1 : durationScale;
+    }
+
+    /**
+     * 计算播放时间 playTime 时的画面，减弱动态模式下光芒与眼睛静止，不分配任何对象
+     * @return out
+     */
+    public SunFrame frameAt(SunBabyModel model, long playTime, SunFrame out) {
+        if (!isReduced()) return model.frameAt(playTime, out);
+
+        float progress = 1;
+        if (reducedMotion == REDUCED_MOTION_PULSE) {
+            final double phase = (playTime % PULSE_DURATION) * 2 * Math.PI / PULSE_DURATION;
+            progress = PULSE_MIN_PROGRESS + (1 - PULSE_MIN_PROGRESS) * (float) (.5 + .5 * Math.cos(phase));
+        }
+        return model.frameAtProgress(0, progress, out);
+    }
+
+    /**
+     * 进度模式下的画面，减弱动态模式下光芒与眼睛静止，太阳高度直接取进度，不分配任何对象
+     * @return out
+     */
+    public SunFrame frameAtProgress(SunBabyModel model, long playTime, float progress, SunFrame out) {
+        return model.frameAtProgress(isReduced() ? 0 : playTime, progress, out);
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+/**
+ * 让显示的进度平滑地追赶最新的目标进度，进度更新稀疏时画面也不会跳变。
+ * <p>
+ * 按指数衰减逼近目标值，与帧率无关；每帧调用 {@link #update(long)}，不分配任何对象。
+ */
+public final class ProgressSmoother {
+
+    /**
+     * 默认的时间常数，经过该时长后与目标值的差距缩小到约 37%
+     */
+    public static final long DEFAULT_TIME_CONSTANT = 120;
+
+    /**
+     * 与目标值的差距小于该值时直接视为到达
+     */
+    private static final float SETTLE_THRESHOLD = 1e-4f;
+
+    private final long timeConstant;
+
+    private float value, target;
+
+    private long lastTime = -1;
+
+    public ProgressSmoother() {
+        this(DEFAULT_TIME_CONSTANT);
+    }
+
+    /**
+     * @param timeConstant 时间常数，单位毫秒，0 表示不做平滑
+     */
+    public ProgressSmoother(long timeConstant) {
+        if (timeConstant < 0) {
+            throw new IllegalArgumentException("Time constant must not be negative: " + timeConstant);
+        }
+        this.timeConstant = timeConstant;
+    }
+
+    public void setTarget(float target) {
+        this.target = target;
+    }
+
+    public float getTarget() {
+        return target;
+    }
+
+    /**
+     * 直接跳到指定的值，不做平滑
+     */
+    public void snapTo(float value) {
+        this.value = value;
+        this.target = value;
+    }
+
+    /**
+     * 推进到 time 时刻，第一次调用或时间倒退时只记录时间
+     * @param time 时间，单位毫秒
+     * @return 当前的值
+     */
+    public float update(long time) {
+        if (lastTime >= 0 && time > lastTime) {
+            if (timeConstant == 0) {
+                value = target;
+            } else {
+                final float decay = (float) Math.exp(-(double) (time - lastTime) / timeConstant);
+                value = target + (value - target) * decay;
+            }
+            if (Math.abs(target - value) < SETTLE_THRESHOLD) {
+                value = target;
+            }
+        }
+        lastTime = time;
+        return value;
+    }
+
+    /**
+     * 下次 {@link #update(long)} 只记录时间，例如动画暂停后重新开始时
+     */
+    public void resetClock() {
+        lastTime = -1;
+    }
+
+    public float getValue() {
+        return value;
+    }
+
+    /**
+     * 是否已经到达目标值
+     */
+    public boolean isSettled() {
+        return value == target;
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+import java.util.ArrayList;
+
+/**
+ * 相位同步的多个实例共用的帧缓存：尺寸与几何参数相同的实例在同一播放时间的画面完全相同，
+ * 每个键每帧只计算一次，其余实例直接复制结果。
+ * <p>
+ * 调用方在每帧开始时调用 {@link #beginFrame()}，所有实例取完帧后调用 {@link #endFrame()}，
+ * 这一帧没有被使用的键随之移除。缓存命中时不分配任何对象。非线程安全。
+ */
+public final class SharedFrameCache {
+
+    private final ArrayList<Entry> entries = new ArrayList<>();
+
+    private int generation;
+
+    /**
+     * 本帧内真正计算画面的次数，用于统计共享的效果
+     */
+    private int computeCount;
+
+    public void beginFrame() {
+        generation++;
+        computeCount = 0;
+    }
+
+    /**
+     * 移除这一帧没有被使用的键
+     */
+    public void endFrame() {
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            if (entries.get(i).generation != generation) {
+                entries.remove(i);
+            }
+        }
+    }
+
+    /**
+     * 取得 key 对应的画面并复制到 out，同一帧内相同的键与播放时间只由 model 计算一次
+     * @param key 区分尺寸、缩放比例与几何参数的键，相同的键必须对应状态相同的模型
+     * @param playTime 播放时间，单位毫秒
+     * @return out
+     */
+    public SunFrame frameAt(String key, SunBabyModel model, long playTime, SunFrame out) {
+        Entry entry = find(key);
+        if (entry == null || entry.frame.rayPoints.length != out.rayPoints.length) {
+            if (entry != null) entries.remove(entry);
+            entry = new Entry(key, model.newFrame());
+            entries.add(entry);
+        }
+
+        if (entry.generation != generation || entry.playTime != playTime) {
+            model.frameAt(playTime, entry.frame);
+            entry.generation = generation;
+            entry.playTime = playTime;
+            computeCount++;
+        }
+        out.set(entry.frame);
+        return out;
+    }
+
+    /**
+     * 当前缓存的键的数量
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 本帧内真正计算画面的次数
+     */
+    public int getComputeCount() {
+        return computeCount;
+    }
+
+    private Entry find(String key) {
+        for (int i = 0; i < entries.size(); i++) {
+            final Entry entry = entries.get(i);
+            if (entry.key.equals(key)) return entry;
+        }
+        return null;
+    }
+
+    private static final class Entry {
+
+        final String key;
+
+        final SunFrame frame;
+
+        int generation = -1;
+
+        long playTime;
+
+        Entry(String key, SunFrame frame) {
+            this.key = key;
+            this.frame = frame;
+        }
+    }
+
+}
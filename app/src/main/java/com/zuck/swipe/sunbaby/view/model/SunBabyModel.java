@@ -0,0 +1,441 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+/**
+ * 太阳宝宝的几何模型，不依赖任何 Android 类，可以直接在 JVM 上测试与测量。
+ * <p>
+ * 根据绘制区域的尺寸计算地平线、太阳半径、光芒长度等几何数据，
+ * 再由 {@link #frameAt(long, SunFrame)} 得出任意播放时间的完整画面，绘制时只需读取 {@link SunFrame}。
+ * <p>
+ * 线宽、光芒数量与动画时长可以修改，修改时只重新计算受影响的数据。
+ * <p>
+ * 光芒间距、光芒长度、眼睛半径以及升起落下的偏移量都是设计尺寸，对应 {@link #DESIGN_DENSITY} 倍密度的屏幕，
+ * 布局时按 {@link #setScale(float)} 缩放一次，不同密度的屏幕上比例保持一致。
+ */
+public final class SunBabyModel {
+
+    /**
+     * 直线起始位置的比率，以View的宽为参照
+     */
+    private static final float RATIO_LINE_START_X = 5 / 6.f;
+
+    /**
+     * 直线起始位置的比率，以View的高为参照
+     */
+    private static final float RATIO_LINE_START_Y = 3 / 4.f;
+
+    /**
+     * 太阳圆弧起始位置的比率，以地平线的宽为参照
+     */
+    private static final float RATIO_ARC_START_X = 2 / 5.f;
+
+    /**
+     * 默认的光芒数量，光芒之间间隔 45 度
+     */
+    public static final int DEFAULT_RAY_COUNT = 8;
+
+    /**
+     * 设计尺寸对应的屏幕密度（xxhdpi）
+     */
+    public static final float DESIGN_DENSITY = 3;
+
+    /**
+     * 太阳圆弧与光芒的空隙间距
+     */
+    private static final float SPACE_SUNSHINE = 12;
+
+    /**
+     * 太阳光芒的长度
+     */
+    private static final float SUNSHINE_LINE_LENGTH = 15;
+
+    /**
+     * 太阳眼睛的半径
+     */
+    private static final float SUN_EYES_RADIUS = 6;
+
+    /**
+     * 默认的地平线与光芒的线宽
+     */
+    public static final float DEFAULT_LINE_STROKE_WIDTH = 5;
+
+    /**
+     * 默认的太阳圆弧的线宽
+     */
+    public static final float DEFAULT_SUN_STROKE_WIDTH = 10;
+
+    private int width, height;
+
+    /**
+     * 设计尺寸到像素的缩放比例
+     */
+    private float scale = 1;
+
+    /**
+     * 按缩放比例换算后的眼睛半径
+     */
+    private float eyesRadius = SUN_EYES_RADIUS;
+
+    private float lineStrokeWidth = DEFAULT_LINE_STROKE_WIDTH;
+
+    private float sunStrokeWidth = DEFAULT_SUN_STROKE_WIDTH;
+
+    /**
+     * 动画脚本，默认为 {@link SunBabyTimeline#SCRIPT}
+     */
+    private SunBabyScript script = SunBabyTimeline.SCRIPT;
+
+    /**
+     * 一次升起落下循环的时长与阳光旋转一周的时长，与脚本的时长不同时按比例缩放
+     */
+    private long cycleDuration = SunBabyTimeline.CYCLE_DURATION, spinDuration = SunBabyTimeline.SPIN_DURATION;
+
+    /**
+     * 地平线起点坐标(lineStartX, lineStartY)，地平线长度lineLength
+     */
+    private float lineStartX, lineStartY, lineLength;
+
+    /**
+     * 太阳圆圈的半径
+     */
+    private float sunRadius;
+
+    /**
+     * 眼睛转动的最大距离
+     */
+    private float maxEyesTurn;
+
+    /**
+     * 太阳光芒的几何缓存
+     */
+    private SunshineRays sunshineRays = new SunshineRays(360f / DEFAULT_RAY_COUNT);
+
+    /**
+     * 根据绘制区域的尺寸计算几何数据
+     */
+    public void setSize(int width, int height) {
+        this.width = width;
+        this.height = height;
+        layout();
+    }
+
+    /**
+     * 设置设计尺寸到像素的缩放比例，通常为屏幕密度除以 {@link #DESIGN_DENSITY}
+     */
+    public void setScale(float scale) {
+        if (scale <= 0) {
+            throw new IllegalArgumentException("Scale must be positive: " + scale);
+        }
+        if (this.scale == scale) return;
+
+        this.scale = scale;
+        layout();
+    }
+
+    public float getScale() {
+        return scale;
+    }
+
+    /**
+     * 眼睛的半径，单位像素
+     */
+    public float getEyesRadius() {
+        return eyesRadius;
+    }
+
+    /**
+     * 设置地平线与光芒、太阳圆弧的线宽，单位像素
+     */
+    public void setStrokeWidths(float lineStrokeWidth, float sunStrokeWidth) {
+        if (lineStrokeWidth <= 0 || sunStrokeWidth <= 0) {
+            throw new IllegalArgumentException("Stroke widths must be positive: " + lineStrokeWidth + ", " + sunStrokeWidth);
+        }
+        if (this.lineStrokeWidth == lineStrokeWidth && this.sunStrokeWidth == sunStrokeWidth) return;
+
+        this.lineStrokeWidth = lineStrokeWidth;
+        this.sunStrokeWidth = sunStrokeWidth;
+        layout();
+    }
+
+    public float getLineStrokeWidth() {
+        return lineStrokeWidth;
+    }
+
+    public float getSunStrokeWidth() {
+        return sunStrokeWidth;
+    }
+
+    /**
+     * 设置光芒的数量，光芒沿圆周均匀分布。修改后需要通过 {@link #newFrame()} 重新创建帧对象
+     */
+    public void setRayCount(int rayCount) {
+        if (rayCount <= 0) {
+            throw new IllegalArgumentException("Ray count must be positive: " + rayCount);
+        }
+        if (rayCount == sunshineRays.getCount()) return;
+
+        final SunshineRays rays = new SunshineRays(360f / rayCount);
+        rays.setRadius(sunshineRays.getInnerRadius(), sunshineRays.getOuterRadius());
+        sunshineRays = rays;
+    }
+
+    public int getRayCount() {
+        return sunshineRays.getCount();
+    }
+
+    /**
+     * 光芒之间间隔的角度，光芒每旋转这么多度后与初始状态重合
+     */
+    public float getRaySeparationAngle() {
+        return 360f / sunshineRays.getCount();
+    }
+
+    /**
+     * 设置动画脚本，动画时长重置为脚本本身的时长
+     */
+    public void setScript(SunBabyScript script) {
+        this.script = script;
+        cycleDuration = script.getCycleDuration();
+        spinDuration = script.getSpinDuration();
+    }
+
+    public SunBabyScript getScript() {
+        return script;
+    }
+
+    /**
+     * 设置动画时长，脚本中的各个关键帧按比例缩放
+     * @param cycleDuration 一次升起落下循环的时长，单位毫秒
+     * @param spinDuration 阳光旋转一周的时长，单位毫秒
+     */
+    public void setDurations(long cycleDuration, long spinDuration) {
+        if (cycleDuration <= 0 || spinDuration <= 0) {
+            throw new IllegalArgumentException("Durations must be positive: " + cycleDuration + ", " + spinDuration);
+        }
+        this.cycleDuration = cycleDuration;
+        this.spinDuration = spinDuration;
+    }
+
+    public long getCycleDuration() {
+        return cycleDuration;
+    }
+
+    public long getSpinDuration() {
+        return spinDuration;
+    }
+
+    /**
+     * 根据尺寸与线宽计算几何数据
+     */
+    private void layout() {
+        // 初始化地平线长度
+        lineLength = width * RATIO_LINE_START_X;
+
+        // 初始化地平线起始坐标X,Y值
+        lineStartX = (width - lineLength) * .5f;
+        lineStartY = height * RATIO_LINE_START_Y;
+
+        // 计算太阳圆圈的半径
+        sunRadius = (lineLength - lineLength * RATIO_ARC_START_X) * .5f;
+
+        // 计算两眼之间的距离，也是眼睛平移的最大距离
+        maxEyesTurn = (sunRadius + sunStrokeWidth * .5f) * .5f;
+
+        // 计算光芒起点、终点到太阳中心的距离
+        final float sunshineRadius = sunRadius + SPACE_SUNSHINE * scale + sunStrokeWidth;
+        sunshineRays.setRadius(sunshineRadius, sunshineRadius + SUNSHINE_LINE_LENGTH * scale);
+
+        eyesRadius = SUN_EYES_RADIUS * scale;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public float getLineStartX() {
+        return lineStartX;
+    }
+
+    public float getLineStartY() {
+        return lineStartY;
+    }
+
+    public float getLineLength() {
+        return lineLength;
+    }
+
+    /**
+     * 太阳、光芒与眼睛的裁剪区域的下边界，比地平线多出半个线宽，以免裁掉地平线
+     */
+    public float getHorizonClipBottom() {
+        return lineStartY + lineStrokeWidth * .5f;
+    }
+
+    /**
+     * 创建与本模型匹配的帧对象
+     */
+    public SunFrame newFrame() {
+        return new SunFrame(sunshineRays.getCount());
+    }
+
+    /**
+     * 计算播放时间 playTime 时的完整画面，每帧都会调用，不分配任何对象
+     * @param playTime 播放时间，单位毫秒
+     * @param out 用于接收结果的帧对象
+     * @return out
+     */
+    public SunFrame frameAt(long playTime, SunFrame out) {
+        evaluate(playTime, out);
+        layoutFrame(out);
+        return out;
+    }
+
+    /**
+     * 只播放一个循环并首尾相接时（烘焙的帧图集、导出的动图）阳光在一个循环内旋转的角度：
+     * 取最接近实际旋转角度的光芒间隔的整数倍，最后一帧之后回到第一帧时光芒的位置是连续的
+     */
+    public float getLoopSpinPerCycle() {
+        final float separation = getRaySeparationAngle();
+        final float realSpin = cycleDuration * 360f / spinDuration;
+        return Math.max(1, Math.round(realSpin / separation)) * separation;
+    }
+
+    /**
+     * 首尾相接循环播放时的画面：与 {@link #frameAt(long, SunFrame)} 相同，
+     * 只是阳光在每个循环内匀速旋转 {@link #getLoopSpinPerCycle()}，不分配任何对象
+     * @param playTime 播放时间，单位毫秒
+     * @param out 用于接收结果的帧对象
+     * @return out
+     */
+    public SunFrame loopFrameAt(long playTime, SunFrame out) {
+        evaluate(playTime, out);
+        final float spin = getLoopSpinPerCycle() * (playTime % cycleDuration) / cycleDuration;
+        out.spin = spin < 360 ? spin : spin % 360;
+        layoutFrame(out);
+        return out;
+    }
+
+    /**
+     * 进度模式下的画面：太阳的高度与圆弧由进度决定，光芒旋转与眼睛动画照常播放，不分配任何对象
+     * @param playTime 播放时间，单位毫秒
+     * @param progress 进度，取值 [0, 1]
+     * @param out 用于接收结果的帧对象
+     * @return out
+     */
+    public SunFrame frameAtProgress(long playTime, float progress, SunFrame out) {
+        evaluate(playTime, out);
+        out.offsetY = script.progressOffsetY(progress) * scale;
+        out.squashX = 0;
+        out.squashY = 0;
+        layoutFrame(out);
+        return out;
+    }
+
+    /**
+     * 只计算播放时间 playTime 时各动画轨道的取值，按当前的动画时长缩放。
+     * <p>
+     * 循环与旋转分别由 playTime 对各自的时长取余得到，只修改其中一个时长时另一个不受影响
+     */
+    public void evaluate(long playTime, SunFrame out) {
+        final long scriptCycle = script.getCycleDuration(), scriptSpin = script.getSpinDuration();
+        if (cycleDuration == scriptCycle && spinDuration == scriptSpin) {
+            script.evaluate(playTime, out);
+        } else {
+            script.evaluate(scaleTime(playTime, cycleDuration, scriptCycle),
+                    scaleTime(playTime, spinDuration, scriptSpin), out);
+        }
+        if (scale != 1) {
+            out.offsetY *= scale;
+            out.squashX *= scale;
+            out.squashY *= scale;
+        }
+    }
+
+    /**
+     * 把播放时间换算为脚本中 [0, scriptDuration) 内的时间，时长未修改时不做缩放
+     */
+    private static float scaleTime(long playTime, long duration, long scriptDuration) {
+        final long time = playTime % duration;
+        return duration == scriptDuration ? time : time * scriptDuration / (float) duration;
+    }
+
+    /**
+     * 根据帧中各动画轨道的取值计算图形
+     */
+    public void layoutFrame(SunFrame frame) {
+        final float centerX = lineStartX + lineLength * .5f;
+        final float centerY = lineStartY + frame.offsetY;
+
+        // 太阳圆弧的外轮廓矩形(包含挤压/拉伸形变)
+        final float radiusX = sunRadius + frame.squashX;
+        final float radiusY = sunRadius + frame.squashY;
+        frame.arcLeft = centerX - radiusX;
+        frame.arcTop = centerY - radiusY;
+        frame.arcRight = centerX + radiusX;
+        frame.arcBottom = centerY + radiusY;
+
+        // 由于太阳升起或者落下偏移Y值所对应的角度
+        final float offsetAngle = calcOffsetAngle(frame.offsetY, sunRadius);
+        frame.arcStartAngle = -180 + offsetAngle;
+        frame.arcSweepAngle = 180 - offsetAngle * 2;
+
+        // 光芒
+        frame.rayPointCount = sunshineRays.compute(frame.spin, width * .5f, centerY, lineStartY, frame.rayPoints);
+
+        // 眼睛
+        frame.rightEyeX = width * .5f + frame.eyesTurn * maxEyesTurn;
+        frame.leftEyeX = frame.rightEyeX - (sunRadius + sunStrokeWidth * .5f) * .5f;
+        frame.eyesY = centerY - eyesRadius;
+        frame.eyesVisible = frame.eyesOpen && frame.eyesY + eyesRadius < lineStartY;
+        frame.eyePoints[0] = frame.leftEyeX;
+        frame.eyePoints[1] = frame.eyesY;
+        frame.eyePoints[2] = frame.rightEyeX;
+        frame.eyePoints[3] = frame.eyesY;
+        frame.eyePointCount = frame.eyesVisible ? 4 : 0;
+
+        calcBounds(frame, width * .5f, centerY);
+    }
+
+    /**
+     * 计算太阳升起或者落下 offsetY 时，地平线与太阳圆弧交点所对应的角度
+     * @param offsetY 太阳中心相对地平线的Y轴偏移量
+     * @param radius 太阳半径
+     * @return 角度，超出半径时取 ±90
+     */
+    public static float calcOffsetAngle(float offsetY, float radius) {
+        final float ratio = Math.max(-1, Math.min(1, offsetY / radius));
+        return (float) (Math.asin(ratio) * 180 / Math.PI);
+    }
+
+    /**
+     * 计算会变化的内容的包围盒
+     */
+    private void calcBounds(SunFrame frame, float centerX, float centerY) {
+        final float halfSunStroke = sunStrokeWidth * .5f;
+        float left = frame.arcLeft - halfSunStroke;
+        float top = frame.arcTop - halfSunStroke;
+        float right = frame.arcRight + halfSunStroke;
+        float bottom = frame.arcBottom + halfSunStroke;
+
+        final float sunshineRadius = sunshineRays.getOuterRadius() + lineStrokeWidth * .5f;
+        left = Math.min(left, centerX - sunshineRadius);
+        top = Math.min(top, centerY - sunshineRadius);
+        right = Math.max(right, centerX + sunshineRadius);
+        bottom = Math.max(bottom, centerY + sunshineRadius);
+
+        left = Math.min(left, frame.leftEyeX - eyesRadius);
+        top = Math.min(top, frame.eyesY - eyesRadius);
+        right = Math.max(right, frame.rightEyeX + eyesRadius);
+        bottom = Math.max(bottom, frame.eyesY + eyesRadius);
+
+        // 地平线以下的部分被裁剪，不会变化
+        frame.boundsLeft = left;
+        frame.boundsTop = top;
+        frame.boundsRight = right;
+        frame.boundsBottom = Math.min(bottom, getHorizonClipBottom());
+    }
+
+}
@@ -0,0 +1,392 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * 由关键帧描述的动画脚本。
+ * <p>
+ * 每条 {@link Track 轨道} 是一串按时间排列的关键帧，两个关键帧之间按后一个关键帧的 {@link Easing} 插值，
+ * 最后一个关键帧之后保持不变。阳光旋转轨道按 {@link #getSpinDuration()} 循环，其余轨道按 {@link #getCycleDuration()} 循环。
+ * <p>
+ * 通过 {@link Builder} 创建，创建时把所有关键帧编译成几个扁平的基本类型数组，创建后不可修改。
+ * 循环内各条轨道的关键帧时间合并成一张分段表，并预先记录每一段中各条轨道所在的关键帧，
+ * 每帧只需一次二分查找就能定位所有轨道，耗时 O(log k)，不分配任何对象。
+ */
+public final class SunBabyScript {
+
+    /**
+     * 动画轨道，时间单位为毫秒，长度单位为设计尺寸
+     */
+    public enum Track {
+
+        /**
+         * 阳光旋转的角度，超过 360 时取余
+         */
+        SPIN(0),
+
+        /**
+         * 太阳相对地平线的Y轴偏移量，正值表示在地平线之下
+         */
+        OFFSET_Y(0),
+
+        /**
+         * 太阳圆弧在水平方向上的形变量，正值表示向外扩张
+         */
+        SQUASH_X(0),
+
+        /**
+         * 太阳圆弧在竖直方向上的形变量，正值表示向外扩张
+         */
+        SQUASH_Y(0),
+
+        /**
+         * 眼睛是否睁开，不小于 0.5 表示睁开
+         */
+        EYES_OPEN(1),
+
+        /**
+         * 眼睛转动的进度，0 表示在原位，1 表示转动到最右侧
+         */
+        EYES_TURN(0);
+
+        /**
+         * 没有关键帧时的取值
+         */
+        final float defaultValue;
+
+        Track(float defaultValue) {
+            this.defaultValue = defaultValue;
+        }
+    }
+
+    private static final int TRACK_COUNT = Track.values().length;
+
+    private static final int SPIN = Track.SPIN.ordinal(), OFFSET_Y = Track.OFFSET_Y.ordinal(),
+            SQUASH_X = Track.SQUASH_X.ordinal(), SQUASH_Y = Track.SQUASH_Y.ordinal(),
+            EYES_OPEN = Track.EYES_OPEN.ordinal(), EYES_TURN = Track.EYES_TURN.ordinal();
+
+    private final long cycleDuration, spinDuration;
+
+    /**
+     * 第 i 条轨道的关键帧在下面三个数组中占 [trackStart[i], trackStart[i + 1])
+     */
+    private final int[] trackStart;
+
+    private final long[] times;
+
+    private final float[] values;
+
+    /**
+     * 到达每个关键帧之前那一段的插值曲线编号
+     */
+    private final byte[] easings;
+
+    /**
+     * 除阳光旋转外所有轨道的关键帧时间去重排序后得到的分段起点，第一段从 0 开始
+     */
+    private final long[] segmentStarts;
+
+    /**
+     * 第 j 段中第 i 条轨道所在的关键帧下标，位于 segmentKeys[j * TRACK_COUNT + i]
+     */
+    private final int[] segmentKeys;
+
+    /**
+     * 太阳偏移量轨道中最低（最大值）与最高（最小值）的位置，进度模式下按进度在两者之间插值
+     */
+    private final float lowestOffsetY, highestOffsetY;
+
+    /**
+     * 脚本内容的完整文本，见 {@link #getKey()}
+     */
+    private final String key;
+
+    private SunBabyScript(Builder builder) {
+        cycleDuration = builder.cycleDuration;
+        spinDuration = builder.spinDuration;
+
+        int count = 0;
+        for (List<Keyframe> keyframes : builder.tracks) {
+            count += Math.max(1, keyframes.size());
+        }
+        trackStart = new int[TRACK_COUNT + 1];
+        times = new long[count];
+        values = new float[count];
+        easings = new byte[count];
+
+        int n = 0;
+        for (int track = 0; track < TRACK_COUNT; track++) {
+            trackStart[track] = n;
+            final List<Keyframe> keyframes = builder.tracks.get(track);
+            if (keyframes.isEmpty()) {
+                values[n++] = Track.values()[track].defaultValue;
+                continue;
+            }
+            for (Keyframe keyframe : keyframes) {
+                times[n] = keyframe.time;
+                values[n] = keyframe.value;
+                easings[n] = (byte) keyframe.easing.ordinal();
+                n++;
+            }
+        }
+        trackStart[TRACK_COUNT] = n;
+
+        final TreeSet<Long> starts = new TreeSet<>();
+        for (int track = 0; track < TRACK_COUNT; track++) {
+            if (track == SPIN) continue;
+            for (int i = trackStart[track]; i < trackStart[track + 1]; i++) {
+                starts.add(times[i]);
+            }
+        }
+        segmentStarts = new long[starts.size()];
+        segmentKeys = new int[starts.size() * TRACK_COUNT];
+        int segment = 0;
+        for (long start : starts) {
+            segmentStarts[segment] = start;
+            for (int track = 0; track < TRACK_COUNT; track++) {
+                segmentKeys[segment * TRACK_COUNT + track] = track == SPIN ? trackStart[track] : search(track, start);
+            }
+            segment++;
+        }
+
+        float lowest = values[trackStart[OFFSET_Y]], highest = lowest;
+        for (int i = trackStart[OFFSET_Y] + 1; i < trackStart[OFFSET_Y + 1]; i++) {
+            lowest = Math.max(lowest, values[i]);
+            highest = Math.min(highest, values[i]);
+        }
+        lowestOffsetY = lowest;
+        highestOffsetY = highest;
+
+        key = buildKey();
+    }
+
+    private String buildKey() {
+        final StringBuilder builder = new StringBuilder().append(cycleDuration).append('/').append(spinDuration);
+        for (int track = 0; track < TRACK_COUNT; track++) {
+            builder.append(';');
+            for (int i = trackStart[track]; i < trackStart[track + 1]; i++) {
+                builder.append(times[i]).append(':').append(values[i]).append(':').append(easings[i]).append(',');
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 一次升起落下循环的时长，单位毫秒
+     */
+    public long getCycleDuration() {
+        return cycleDuration;
+    }
+
+    /**
+     * 阳光旋转轨道循环的时长，单位毫秒
+     */
+    public long getSpinDuration() {
+        return spinDuration;
+    }
+
+    /**
+     * 完整描述脚本内容的文本：内容相同的脚本返回相同的值，内容不同的脚本一定不同。
+     * 用作图集与共享帧缓存的键，不会像 {@link #hashCode()} 那样发生碰撞
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * 进度模式下太阳的偏移量（设计尺寸）：进度为 0 时位于偏移量轨道的最低处，为 1 时升到最高处
+     * @param progress 进度，超出 [0, 1] 时取边界值
+     */
+    public float progressOffsetY(float progress) {
+        progress = Math.max(0, Math.min(1, progress));
+        return lowestOffsetY + (highestOffsetY - lowestOffsetY) * progress;
+    }
+
+    /**
+     * 关键帧的总数
+     */
+    public int getKeyframeCount() {
+        return times.length;
+    }
+
+    /**
+     * 计算播放时间 playTime 时各条轨道的取值，每帧都会调用，不分配任何对象
+     * @param playTime 播放时间，单位毫秒
+     * @param out 用于接收结果的帧对象
+     */
+    public void evaluate(long playTime, SunFrame out) {
+        evaluate(playTime % cycleDuration, playTime % spinDuration, out);
+    }
+
+    /**
+     * 分别指定循环内的时间与旋转循环内的时间，用于按比例缩放动画时长
+     * @param cycleTime 一次循环内的时间，取值 [0, {@link #getCycleDuration()})
+     * @param spinTime 旋转循环内的时间，取值 [0, {@link #getSpinDuration()})
+     */
+    public void evaluate(float cycleTime, float spinTime, SunFrame out) {
+        // 浮点取余较慢，只在超过一周时才计算
+        final float spin = sample(SPIN, spinTime);
+        out.spin = spin >= 0 && spin < 360 ? spin : spin - (float) Math.floor(spin / 360) * 360;
+
+        final int segment = findSegment(cycleTime) * TRACK_COUNT;
+        out.offsetY = interpolate(OFFSET_Y, segmentKeys[segment + OFFSET_Y], cycleTime);
+        out.squashX = interpolate(SQUASH_X, segmentKeys[segment + SQUASH_X], cycleTime);
+        out.squashY = interpolate(SQUASH_Y, segmentKeys[segment + SQUASH_Y], cycleTime);
+        out.eyesOpen = interpolate(EYES_OPEN, segmentKeys[segment + EYES_OPEN], cycleTime) >= .5f;
+        out.eyesTurn = interpolate(EYES_TURN, segmentKeys[segment + EYES_TURN], cycleTime);
+    }
+
+    /**
+     * 二分查找 time 所在的分段
+     */
+    private int findSegment(float time) {
+        int low = 0;
+        int high = segmentStarts.length - 1;
+        while (low < high) {
+            final int mid = (low + high + 1) >>> 1;
+            if (segmentStarts[mid] <= time) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 某条轨道在 time 时的取值
+     */
+    public float sample(Track track, float time) {
+        return sample(track.ordinal(), time);
+    }
+
+    private float sample(int track, float time) {
+        return interpolate(track, search(track, time), time);
+    }
+
+    /**
+     * 二分查找轨道中最后一个不晚于 time 的关键帧
+     */
+    private int search(int track, float time) {
+        int low = trackStart[track];
+        int high = trackStart[track + 1] - 1;
+        while (low < high) {
+            final int mid = (low + high + 1) >>> 1;
+            if (times[mid] <= time) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * 从关键帧 key 向下一个关键帧插值，key 是轨道的最后一个关键帧时保持不变
+     */
+    private float interpolate(int track, int key, float time) {
+        final int next = key + 1;
+        if (next == trackStart[track + 1]) return values[key];
+        final float fraction = (time - times[key]) / (times[next] - times[key]);
+        return values[key] + (values[next] - values[key]) * Easing.interpolate(easings[next], fraction);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SunBabyScript)) return false;
+
+        final SunBabyScript script = (SunBabyScript) o;
+        return cycleDuration == script.cycleDuration
+                && spinDuration == script.spinDuration
+                && Arrays.equals(trackStart, script.trackStart)
+                && Arrays.equals(times, script.times)
+                && Arrays.equals(values, script.values)
+                && Arrays.equals(easings, script.easings);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (cycleDuration ^ (cycleDuration >>> 32));
+        result = 31 * result + (int) (spinDuration ^ (spinDuration >>> 32));
+        result = 31 * result + Arrays.hashCode(trackStart);
+        result = 31 * result + Arrays.hashCode(times);
+        result = 31 * result + Arrays.hashCode(values);
+        result = 31 * result + Arrays.hashCode(easings);
+        return result;
+    }
+
+    private static final class Keyframe {
+
+        final long time;
+
+        final float value;
+
+        final Easing easing;
+
+        Keyframe(long time, float value, Easing easing) {
+            this.time = time;
+            this.value = value;
+            this.easing = easing;
+        }
+    }
+
+    public static final class Builder {
+
+        private final long cycleDuration, spinDuration;
+
+        private final List<List<Keyframe>> tracks = new ArrayList<>(TRACK_COUNT);
+
+        /**
+         * @param cycleDuration 一次升起落下循环的时长，单位毫秒
+         * @param spinDuration 阳光旋转轨道循环的时长，单位毫秒
+         */
+        public Builder(long cycleDuration, long spinDuration) {
+            if (cycleDuration <= 0 || spinDuration <= 0) {
+                throw new IllegalArgumentException("Durations must be positive: " + cycleDuration + ", " + spinDuration);
+            }
+            this.cycleDuration = cycleDuration;
+            this.spinDuration = spinDuration;
+            for (int i = 0; i < TRACK_COUNT; i++) {
+                tracks.add(new ArrayList<Keyframe>());
+            }
+        }
+
+        /**
+         * 添加关键帧，与上一个关键帧之间匀速变化
+         */
+        public Builder keyframe(Track track, long time, float value) {
+            return keyframe(track, time, value, Easing.LINEAR);
+        }
+
+        /**
+         * 添加关键帧，同一条轨道的关键帧必须按时间先后添加，第一个关键帧的时间必须为 0
+         * @param time 关键帧的时间，单位毫秒，不能超过轨道循环的时长
+         * @param easing 从上一个关键帧到这个关键帧的插值曲线
+         */
+        public Builder keyframe(Track track, long time, float value, Easing easing) {
+            final List<Keyframe> keyframes = tracks.get(track.ordinal());
+            final long duration = track == Track.SPIN ? spinDuration : cycleDuration;
+            if (keyframes.isEmpty() ? time != 0 : time <= keyframes.get(keyframes.size() - 1).time) {
+                throw new IllegalArgumentException("Keyframes of " + track + " must start at 0 and be in increasing order: " + time);
+            }
+            if (time > duration) {
+                throw new IllegalArgumentException("Keyframe of " + track + " exceeds the duration " + duration + ": " + time);
+            }
+            keyframes.add(new Keyframe(time, value, easing));
+            return this;
+        }
+
+        /**
+         * 编译所有关键帧，没有关键帧的轨道保持默认值
+         */
+        public SunBabyScript build() {
+            return new SunBabyScript(this);
+        }
+    }
+
+}
@@ -0,0 +1,184 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+import com.zuck.swipe.sunbaby.view.model.SunBabyScript.Track;
+
+/**
+ * 太阳宝宝的默认动画时间轴，各阶段的时长与高度编写成 {@link SunBabyScript} 关键帧脚本。
+ * <p>
+ * 所有动画轨道（阳光旋转、升起落下、圆弧形变、眨眼、转动眼睛）都只由同一个播放时间推算得出，
+ * 同样的播放时间总是得到同样的结果，因此可以在任意时刻跳转，也方便离线测量每帧的开销。
+ * <p>
+ * 一次循环依次为：缓慢升起 → 快速升起 → 第二次缓慢升起 → 快速落下；
+ * 快速升起结束后，眼睛依次眨两次 → 向右看 → 眨一次 → 向左看。
+ */
+public final class SunBabyTimeline {
+
+    /**
+     * 阳光旋转一周的时长
+     */
+    public static final long SPIN_DURATION = 24 * 1000;
+
+    /**
+     * 第一次缓慢升起的时长
+     */
+    static final long RISE1_DURATION = 2500;
+
+    /**
+     * 快速升起的时长
+     */
+    static final long RISE_FAST_DURATION = 200;
+
+    /**
+     * 第二次缓慢升起的时长
+     */
+    static final long RISE2_DURATION = 3000;
+
+    /**
+     * 快速落下的时长
+     */
+    static final long SINK_DURATION = 200;
+
+    /**
+     * 一次升起落下循环的总时长
+     */
+    public static final long CYCLE_DURATION = RISE1_DURATION + RISE_FAST_DURATION + RISE2_DURATION + SINK_DURATION;
+
+    /**
+     * 眼睛动画的起点，即快速升起结束的时刻
+     */
+    static final long EYES_START = RISE1_DURATION + RISE_FAST_DURATION;
+
+    /**
+     * 眨动两次眼睛的延迟与时长
+     */
+    static final long BLINK2_DELAY = 400, BLINK2_DURATION = 500;
+
+    /**
+     * 眼睛向右转动的延迟
+     */
+    static final long TURN_RIGHT_DELAY = 200;
+
+    /**
+     * 眨动一次眼睛的延迟与时长
+     */
+    static final long BLINK1_DELAY = 600, BLINK1_DURATION = 100;
+
+    /**
+     * 眼睛向左转动的延迟
+     */
+    static final long TURN_LEFT_DELAY = 800;
+
+    /**
+     * 眼睛转动的时长
+     */
+    static final long TURN_DURATION = 150;
+
+    /**
+     * 太阳的默认偏移量
+     */
+    static final float DEFAULT_OFFSET_Y = 20;
+
+    /**
+     * 太阳升起高度基准值
+     */
+    static final float RISE_HEIGHT = 12;
+
+    /**
+     * 快速升起的高度
+     */
+    static final float RISE_FAST_HEIGHT = RISE_HEIGHT * 2.5f;
+
+    /**
+     * 第二次缓慢升起的高度
+     */
+    static final float RISE2_HEIGHT = RISE_HEIGHT * 1.5f;
+
+    /**
+     * 太阳升到最高处时的偏移量
+     */
+    static final float HIGHEST_OFFSET_Y = DEFAULT_OFFSET_Y - RISE_HEIGHT - RISE_FAST_HEIGHT - RISE2_HEIGHT;
+
+    /**
+     * 默认的动画脚本
+     */
+    public static final SunBabyScript SCRIPT = buildScript();
+
+    private SunBabyTimeline() {
+    }
+
+    /**
+     * 计算播放时间 playTime 时各条轨道的取值，每帧都会调用，不允许分配任何对象
+     * @param playTime 播放时间，单位毫秒
+     * @param out 用于接收结果的帧对象
+     */
+    public static void evaluate(long playTime, SunFrame out) {
+        SCRIPT.evaluate(playTime, out);
+    }
+
+    /**
+     * 默认脚本在进度模式下太阳的偏移量：进度为 0 时位于初始位置，为 1 时升到最高处
+     * @param progress 进度，超出 [0, 1] 时取边界值
+     */
+    public static float progressOffsetY(float progress) {
+        return SCRIPT.progressOffsetY(progress);
+    }
+
+    /**
+     * 把各阶段的时长与高度写成关键帧
+     */
+    private static SunBabyScript buildScript() {
+        final SunBabyScript.Builder builder = new SunBabyScript.Builder(CYCLE_DURATION, SPIN_DURATION)
+                .keyframe(Track.SPIN, 0, 0)
+                .keyframe(Track.SPIN, SPIN_DURATION, 360);
+
+        // 升起落下：缓慢升起 → 快速升起 → 第二次缓慢升起 → 快速落下
+        final long riseFastStart = RISE1_DURATION;
+        final long rise2Start = riseFastStart + RISE_FAST_DURATION;
+        final long sinkStart = rise2Start + RISE2_DURATION;
+        final float riseFastStartY = DEFAULT_OFFSET_Y - RISE_HEIGHT;
+        builder.keyframe(Track.OFFSET_Y, 0, DEFAULT_OFFSET_Y)
+                .keyframe(Track.OFFSET_Y, riseFastStart, riseFastStartY)
+                .keyframe(Track.OFFSET_Y, rise2Start, riseFastStartY - RISE_FAST_HEIGHT, Easing.SINE_IN_OUT)
+                .keyframe(Track.OFFSET_Y, sinkStart, HIGHEST_OFFSET_Y)
+                .keyframe(Track.OFFSET_Y, CYCLE_DURATION, DEFAULT_OFFSET_Y, Easing.SINE_IN_OUT);
+
+        // 快速升起时前半段横向拉宽、纵向压扁，后半段恢复，形变量为已升起的高度与剩余高度中较小的一个
+        final float riseSquash = RISE_FAST_HEIGHT * .5f;
+        builder.keyframe(Track.SQUASH_X, 0, 0)
+                .keyframe(Track.SQUASH_X, riseFastStart, 0)
+                .keyframe(Track.SQUASH_X, riseFastStart + RISE_FAST_DURATION / 2, riseSquash, Easing.SINE_IN)
+                .keyframe(Track.SQUASH_X, rise2Start, 0, Easing.SINE_OUT)
+                .keyframe(Track.SQUASH_X, sinkStart, 0)
+                .keyframe(Track.SQUASH_X, sinkStart + SINK_DURATION / 2, -(DEFAULT_OFFSET_Y - HIGHEST_OFFSET_Y) * .25f, Easing.SINE_IN)
+                .keyframe(Track.SQUASH_X, CYCLE_DURATION, 0, Easing.SINE_OUT);
+        builder.keyframe(Track.SQUASH_Y, 0, 0)
+                .keyframe(Track.SQUASH_Y, riseFastStart, 0)
+                .keyframe(Track.SQUASH_Y, riseFastStart + RISE_FAST_DURATION / 2, -riseSquash, Easing.SINE_IN)
+                .keyframe(Track.SQUASH_Y, rise2Start, 0, Easing.SINE_OUT);
+
+        // 眨动两次眼睛：闭 → 睁 → 闭 → 睁，各占三分之一
+        final long blink2Start = EYES_START + BLINK2_DELAY;
+        final long blink2End = blink2Start + BLINK2_DURATION;
+        final long blink2Third = (BLINK2_DURATION + 2) / 3;
+        final long turnRightStart = blink2End + TURN_RIGHT_DELAY;
+        final long blink1Start = turnRightStart + TURN_DURATION + BLINK1_DELAY;
+        final long blink1End = blink1Start + BLINK1_DURATION;
+        final long turnLeftStart = blink1End + TURN_LEFT_DELAY;
+        builder.keyframe(Track.EYES_OPEN, 0, 1)
+                .keyframe(Track.EYES_OPEN, blink2Start, 0, Easing.STEP)
+                .keyframe(Track.EYES_OPEN, blink2Start + blink2Third, 1, Easing.STEP)
+                .keyframe(Track.EYES_OPEN, blink2Start + blink2Third * 2, 0, Easing.STEP)
+                .keyframe(Track.EYES_OPEN, blink2End, 1, Easing.STEP)
+                .keyframe(Track.EYES_OPEN, blink1Start, 0, Easing.STEP)
+                .keyframe(Track.EYES_OPEN, blink1End, 1, Easing.STEP);
+
+        // 向右看 → 向左看回到原位
+        builder.keyframe(Track.EYES_TURN, 0, 0)
+                .keyframe(Track.EYES_TURN, turnRightStart, 0)
+                .keyframe(Track.EYES_TURN, turnRightStart + TURN_DURATION, 1, Easing.SINE_IN_OUT)
+                .keyframe(Track.EYES_TURN, turnLeftStart, 1)
+                .keyframe(Track.EYES_TURN, turnLeftStart + TURN_DURATION, 0, Easing.SINE_IN_OUT);
+        return builder.build();
+    }
+
+}
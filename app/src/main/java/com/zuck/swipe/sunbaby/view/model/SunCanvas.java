@@ -0,0 +1,39 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+/**
+ * 太阳宝宝的绘制目标，每个方法对应一次画布调用，画笔由实现方根据图形的种类决定。
+ * <p>
+ * View 中由 Android Canvas 实现；在 JVM 上可以用记录调用的实现统计绘制次数。
+ */
+public interface SunCanvas {
+
+    /**
+     * 保存画布状态并裁剪到指定矩形
+     */
+    void clipRect(float left, float top, float right, float bottom);
+
+    /**
+     * 恢复到上一次 {@link #clipRect(float, float, float, float)} 之前的状态
+     */
+    void restore();
+
+    /**
+     * 地平线，使用线条画笔
+     */
+    void drawHorizon(float startX, float startY, float stopX, float stopY);
+
+    /**
+     * 太阳圆弧，使用太阳画笔
+     */
+    void drawArc(float left, float top, float right, float bottom, float startAngle, float sweepAngle);
+
+    /**
+     * 两只眼睛，每只眼睛的圆心占 2 个值，使用眼睛画笔；Android 上对应一次圆头的 drawPoints
+     */
+    void drawEyes(float[] points, int offset, int count, float radius);
+
+    /**
+     * 一组线段，每条线段占 4 个值，使用线条画笔；地平线与光芒画笔相同，可以合并成一次调用
+     */
+    void drawLines(float[] points, int offset, int count);
+}
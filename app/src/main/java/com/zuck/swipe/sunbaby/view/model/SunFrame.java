@@ -0,0 +1,146 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+/**
+ * 某一时刻太阳宝宝的完整状态：各条动画轨道的取值由 {@link SunBabyTimeline} 填充，
+ * 据此算出的图形（圆弧、光芒、眼睛与包围盒）由 {@link SunBabyModel} 填充。
+ * <p>
+ * 对象可反复复用，避免每帧创建新实例。
+ */
+public final class SunFrame {
+
+    /**
+     * 阳光旋转的角度，取值 [0, 360)
+     */
+    public float spin;
+
+    /**
+     * 太阳相对地平线的Y轴偏移量，正值表示在地平线之下
+     */
+    public float offsetY;
+
+    /**
+     * 太阳圆弧外轮廓在水平、竖直方向上的形变量（挤压/拉伸），正值表示向外扩张
+     */
+    public float squashX, squashY;
+
+    /**
+     * 眼睛是否睁开
+     */
+    public boolean eyesOpen = true;
+
+    /**
+     * 眼睛转动的进度，0 表示在原位，1 表示转动到最右侧
+     */
+    public float eyesTurn;
+
+    /**
+     * 太阳圆弧的外轮廓矩形
+     */
+    public float arcLeft, arcTop, arcRight, arcBottom;
+
+    /**
+     * 太阳圆弧的起始角度与扫过的角度
+     */
+    public float arcStartAngle, arcSweepAngle;
+
+    /**
+     * 地平线以上的光芒线段端点，每道光芒占 4 个值，有效长度为 {@link #rayPointCount}
+     */
+    public final float[] rayPoints;
+
+    public int rayPointCount;
+
+    /**
+     * 两只眼睛的圆心坐标，两只眼睛的Y值相同
+     */
+    public float leftEyeX, rightEyeX, eyesY;
+
+    /**
+     * 两只眼睛的圆心，按 {@code Canvas.drawPoints(float[], int, int, Paint)} 的格式存放，
+     * 眼睛可见时有效长度 {@link #eyePointCount} 为 4，否则为 0
+     */
+    public final float[] eyePoints = new float[4];
+
+    public int eyePointCount;
+
+    /**
+     * 眼睛是否需要绘制：睁开并且完全位于地平线之上
+     */
+    public boolean eyesVisible;
+
+    /**
+     * 会变化的内容（太阳圆弧、光芒、眼睛）的包围盒，已裁剪到地平线
+     */
+    public float boundsLeft, boundsTop, boundsRight, boundsBottom;
+
+    /**
+     * @param rayCount 光芒的数量
+     */
+    public SunFrame(int rayCount) {
+        rayPoints = new float[rayCount * 4];
+    }
+
+    /**
+     * 复制另一帧的全部状态，两帧的光芒数量必须相同
+     */
+    public void set(SunFrame other) {
+        if (rayPoints.length != other.rayPoints.length) {
+            throw new IllegalArgumentException("Ray count mismatch: " + rayPoints.length / 4 + " != " + other.rayPoints.length / 4);
+        }
+        spin = other.spin;
+        offsetY = other.offsetY;
+        squashX = other.squashX;
+        squashY = other.squashY;
+        eyesOpen = other.eyesOpen;
+        eyesTurn = other.eyesTurn;
+        arcLeft = other.arcLeft;
+        arcTop = other.arcTop;
+        arcRight = other.arcRight;
+        arcBottom = other.arcBottom;
+        arcStartAngle = other.arcStartAngle;
+        arcSweepAngle = other.arcSweepAngle;
+        System.arraycopy(other.rayPoints, 0, rayPoints, 0, other.rayPointCount);
+        rayPointCount = other.rayPointCount;
+        leftEyeX = other.leftEyeX;
+        rightEyeX = other.rightEyeX;
+        eyesY = other.eyesY;
+        System.arraycopy(other.eyePoints, 0, eyePoints, 0, other.eyePointCount);
+        eyePointCount = other.eyePointCount;
+        eyesVisible = other.eyesVisible;
+        boundsLeft = other.boundsLeft;
+        boundsTop = other.boundsTop;
+        boundsRight = other.boundsRight;
+        boundsBottom = other.boundsBottom;
+    }
+
+    /**
+     * 与另一帧相比，画面中移动最多的点移动的距离（像素），用于判断两帧在屏幕上是否有可见的差别
+     * @return 眼睛或光芒的可见性不同时返回 {@link Float#MAX_VALUE}
+     */
+    public float distanceTo(SunFrame other) {
+        if (eyesVisible != other.eyesVisible || rayPointCount != other.rayPointCount) {
+            return Float.MAX_VALUE;
+        }
+
+        float distance = Math.abs(arcLeft - other.arcLeft);
+        distance = Math.max(distance, Math.abs(arcTop - other.arcTop));
+        distance = Math.max(distance, Math.abs(arcRight - other.arcRight));
+        distance = Math.max(distance, Math.abs(arcBottom - other.arcBottom));
+
+        // 圆弧两端沿圆周移动的弧长
+        final float radius = Math.max(arcRight - arcLeft, arcBottom - arcTop) * .5f;
+        distance = Math.max(distance, (float) Math.toRadians(Math.abs(arcStartAngle - other.arcStartAngle)) * radius);
+
+        if (eyesVisible) {
+            distance = Math.max(distance, Math.abs(leftEyeX - other.leftEyeX));
+            distance = Math.max(distance, Math.abs(rightEyeX - other.rightEyeX));
+            distance = Math.max(distance, Math.abs(eyesY - other.eyesY));
+        }
+
+        for (int i = 0; i < rayPointCount; i++) {
+            distance = Math.max(distance, Math.abs(rayPoints[i] - other.rayPoints[i]));
+        }
+        return distance;
+    }
+
+}
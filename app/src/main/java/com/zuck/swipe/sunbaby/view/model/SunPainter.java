@@ -0,0 +1,56 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+/**
+ * 按固定的顺序把 {@link SunFrame} 绘制到 {@link SunCanvas} 上，View、离屏烘焙和基准测试共用同一套绘制逻辑
+ */
+public final class SunPainter {
+
+    private SunPainter() {
+    }
+
+    public static void drawHorizon(SunBabyModel model, SunCanvas canvas) {
+        final float lineStartX = model.getLineStartX();
+        final float lineStartY = model.getLineStartY();
+        canvas.drawHorizon(lineStartX, lineStartY, lineStartX + model.getLineLength(), lineStartY);
+    }
+
+    /**
+     * 绘制太阳圆弧、眼睛与光芒，地平线以下的部分通过裁剪区域遮挡
+     */
+    public static void drawSun(SunBabyModel model, SunFrame frame, SunCanvas canvas) {
+        canvas.clipRect(0, 0, model.getWidth(), model.getHorizonClipBottom());
+
+        drawArcAndEyes(model, frame, canvas);
+        if (frame.rayPointCount > 0) {
+            canvas.drawLines(frame.rayPoints, 0, frame.rayPointCount);
+        }
+
+        canvas.restore();
+    }
+
+    /**
+     * 绘制地平线与太阳：圆弧、两只眼睛、地平线与光芒各只需一次调用。
+     * <p>
+     * 地平线恰好位于裁剪区域的下边界之内，与光芒合并在 batch 中一起绘制
+     */
+    public static void drawFrame(SunBabyModel model, SunFrame frame, LineBatch batch, SunCanvas canvas) {
+        batch.update(model, frame);
+
+        canvas.clipRect(0, 0, model.getWidth(), model.getHorizonClipBottom());
+
+        drawArcAndEyes(model, frame, canvas);
+        canvas.drawLines(batch.points, 0, batch.pointCount);
+
+        canvas.restore();
+    }
+
+    private static void drawArcAndEyes(SunBabyModel model, SunFrame frame, SunCanvas canvas) {
+        canvas.drawArc(frame.arcLeft, frame.arcTop, frame.arcRight, frame.arcBottom,
+                frame.arcStartAngle, frame.arcSweepAngle);
+
+        if (frame.eyePointCount > 0) {
+            canvas.drawEyes(frame.eyePoints, 0, frame.eyePointCount, model.getEyesRadius());
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 太阳光芒的几何缓存。
+ * <p>
+ * 每道光芒的单位方向向量在创建时一次算好，光芒数量相同的实例共用同一张查找表；光芒内外半径在布局时设置；
+ * 绘制时只需对旋转角度求一次 sin/cos，就能旋转出所有光芒的线段，
+ * 结果按 {@code Canvas.drawLines(float[], int, int, Paint)} 的格式写入数组。
+ */
+final class SunshineRays {
+
+    /**
+     * 按光芒数量缓存的方向向量查找表，创建后只读，可以在多个线程中共用
+     */
+    private static final Map<Integer, float[]> directionsCache = new HashMap<>();
+
+    /**
+     * 判断光芒是否低于地平线时允许的误差，避免恰好水平的光芒因浮点误差时隐时现
+     */
+    private static final float HORIZON_EPSILON = 1e-6f;
+
+    /**
+     * 每道光芒的单位方向向量查找表，依次存放每道光芒的 x、y 分量
+     */
+    private final float[] directions;
+
+    /**
+     * 光芒起点、终点到太阳中心的距离
+     */
+    private float innerRadius, outerRadius;
+
+    /**
+     * @param separationAngle 光芒之间间隔的角度
+     */
+    SunshineRays(float separationAngle) {
+        directions = obtainDirections(Math.round(360 / separationAngle));
+    }
+
+    private static float[] obtainDirections(int count) {
+        synchronized (directionsCache) {
+            float[] directions = directionsCache.get(count);
+            if (directions == null) {
+                final float separationAngle = 360f / count;
+                directions = new float[count * 2];
+                for (int i = 0; i < count; i++) {
+                    double radians = Math.toRadians(i * separationAngle);
+                    directions[i * 2] = (float) Math.cos(radians);
+                    directions[i * 2 + 1] = (float) Math.sin(radians);
+                }
+                directionsCache.put(count, directions);
+            }
+            return directions;
+        }
+    }
+
+    /**
+     * 光芒的数量
+     */
+    int getCount() {
+        return directions.length / 2;
+    }
+
+    void setRadius(float innerRadius, float outerRadius) {
+        this.innerRadius = innerRadius;
+        this.outerRadius = outerRadius;
+    }
+
+    /**
+     * 光芒起点到太阳中心的距离
+     */
+    float getInnerRadius() {
+        return innerRadius;
+    }
+
+    /**
+     * 光芒终点到太阳中心的距离
+     */
+    float getOuterRadius() {
+        return outerRadius;
+    }
+
+    /**
+     * 计算旋转 spin 度后地平线以上的光芒线段
+     * @param spin 旋转角度
+     * @param centerX 太阳中心X值
+     * @param centerY 太阳中心Y值
+     * @param horizonY 地平线Y值，起点或终点低于地平线的光芒不绘制
+     * @param out 线段端点数组，每道光芒占 4 个值
+     * @return 写入 out 的数值个数
+     */
+    int compute(float spin, float centerX, float centerY, float horizonY, float[] out) {
+        final double radians = Math.toRadians(spin);
+        final float cos = (float) Math.cos(radians);
+        final float sin = (float) Math.sin(radians);
+
+        // 端点 y = centerY + dirY * radius <= horizonY 对内外两个半径都要成立
+        final float limit = horizonY - centerY;
+        final float maxDirY = Math.min(limit / innerRadius, limit / outerRadius) + HORIZON_EPSILON;
+
+        int n = 0;
+        for (int i = 0; i < directions.length; i += 2) {
+            final float unitX = directions[i], unitY = directions[i + 1];
+            final float dirY = unitY * cos + unitX * sin;
+            if (dirY > maxDirY) continue;
+
+            final float dirX = unitX * cos - unitY * sin;
+            out[n++] = centerX + dirX * innerRadius;
+            out[n++] = centerY + dirY * innerRadius;
+            out[n++] = centerX + dirX * outerRadius;
+            out[n++] = centerY + dirY * outerRadius;
+        }
+        return n;
+    }
+
+}
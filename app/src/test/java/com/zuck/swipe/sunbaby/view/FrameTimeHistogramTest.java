@@ -0,0 +1,113 @@
+package com.zuck.swipe.sunbaby.view;
+
+import com.zuck.swipe.sunbaby.view.model.FramePacer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FrameTimeHistogramTest {
+
+    @Test
+    public void percentile_nearestRank() {
+        FrameTimeHistogram histogram = new FrameTimeHistogram(100);
+        for (int i = 100; i >= 1; i--) {
+            histogram.record(i);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(50, histogram.getPercentile(50));
+        assertEquals(95, histogram.getPercentile(95));
+        assertEquals(99, histogram.getPercentile(99));
+        assertEquals(1, histogram.getPercentile(0));
+        assertEquals(100, histogram.getMax());
+    }
+
+    @Test
+    public void record_overwritesOldestSample() {
+        FrameTimeHistogram histogram = new FrameTimeHistogram(4);
+        histogram.record(1000);
+        for (int i = 1; i <= 4; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(4, histogram.getCount());
+        assertEquals(4, histogram.getMax());
+        assertEquals(2, histogram.getPercentile(50));
+    }
+
+    @Test
+    public void percentile_emptyIsZero() {
+        FrameTimeHistogram histogram = new FrameTimeHistogram(8);
+        assertEquals(0, histogram.getPercentile(99));
+
+        histogram.record(5);
+        histogram.clear();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    @Test
+    public void metrics_countsMissedVsyncs() {
+        final long interval = 16666667;
+        SunBabyFrameMetrics metrics = new SunBabyFrameMetrics();
+        metrics.onFrame(0, interval);
+        metrics.onFrame(interval, interval);
+        assertEquals(0, metrics.getMissedVsyncs());
+
+        // 跳过了两帧
+        metrics.onFrame(interval * 4, interval);
+        assertEquals(2, metrics.getMissedVsyncs());
+
+        // 暂停期间的时间不计为丢帧
+        metrics.onResume();
+        metrics.onFrame(interval * 100, interval);
+        assertEquals(2, metrics.getMissedVsyncs());
+        assertEquals(4, metrics.getFrames());
+    }
+
+    @Test
+    public void metrics_ignoresSubPixelBackoff() {
+        final long vsync = 16666667;
+        final long callbackLatency = 1000000;
+        FramePacer pacer = new FramePacer(vsync);
+        SunBabyFrameMetrics metrics = new SunBabyFrameMetrics();
+
+        // 与 Drawable 相同：每帧画面都移动不足一个像素，按延长后的间隔投递下一次帧回调
+        long nextWakeNanos = 0;
+        for (long t = 0; t < 1000000000L; t += vsync) {
+            if (t < nextWakeNanos) continue;
+
+            long delayMillis = 0;
+            if (pacer.shouldRender(t)) {
+                metrics.onFrame(t, pacer.getCurrentIntervalNanos());
+                pacer.onFrameResult(false);
+                delayMillis = pacer.getNextFrameDelayMillis();
+            }
+            nextWakeNanos = t + callbackLatency + delayMillis * 1000000;
+        }
+        assertTrue(metrics.getFrames() < 30);
+        assertEquals(0, metrics.getMissedVsyncs());
+
+        // 延长的间隔之后仍然晚到的帧照常计为丢帧
+        final long last = nextWakeNanos;
+        metrics.onFrame(last + FramePacer.MAX_IDLE_INTERVAL_NANOS * 2, FramePacer.MAX_IDLE_INTERVAL_NANOS);
+        assertTrue(metrics.getMissedVsyncs() > 0);
+    }
+
+    @Test
+    public void metrics_drawTimes() {
+        SunBabyFrameMetrics metrics = new SunBabyFrameMetrics();
+        metrics.onInvalidate();
+        metrics.onInvalidate();
+        metrics.onDraw(3000);
+
+        assertEquals(2, metrics.getInvalidations());
+        assertEquals(1, metrics.getFramesDrawn());
+        assertEquals(3000, metrics.getDrawTimePercentileNanos(99));
+
+        metrics.reset();
+        assertEquals(0, metrics.getFramesDrawn());
+        assertEquals(0, metrics.getDrawTimePercentileNanos(99));
+    }
+}
@@ -0,0 +1,141 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FramePacerTest {
+
+    private static final long VSYNC_120HZ = 1000000000L / 120;
+
+    @Test
+    public void native_rendersEveryVsync() {
+        FramePacer pacer = new FramePacer(VSYNC_120HZ);
+        assertEquals(120, countRendered(pacer, VSYNC_120HZ, 120));
+        assertEquals(0, pacer.getNextFrameDelayMillis());
+    }
+
+    @Test
+    public void targetFrameRate_skipsVsyncs() {
+        FramePacer pacer = new FramePacer(VSYNC_120HZ);
+        pacer.setTargetFrameRate(60);
+        assertEquals(60, countRendered(pacer, VSYNC_120HZ, 120));
+
+        pacer.reset();
+        pacer.setTargetFrameRate(30);
+        assertEquals(30, countRendered(pacer, VSYNC_120HZ, 120));
+        assertEquals(25, pacer.getNextFrameDelayMillis());
+    }
+
+    @Test
+    public void frameRateCap_takesLowerRate() {
+        FramePacer pacer = new FramePacer(VSYNC_120HZ);
+        pacer.setTargetFrameRate(60);
+        pacer.setFrameRateCap(30);
+        assertEquals(30, countRendered(pacer, VSYNC_120HZ, 120));
+
+        pacer.reset();
+        pacer.setFrameRateCap(FramePacer.FRAME_RATE_NATIVE);
+        assertEquals(60, countRendered(pacer, VSYNC_120HZ, 120));
+    }
+
+    @Test
+    public void targetAboveRefreshRate_rendersEveryVsync() {
+        FramePacer pacer = new FramePacer(1000000000L / 60);
+        pacer.setTargetFrameRate(120);
+        assertEquals(60, countRendered(pacer, 1000000000L / 60, 60));
+    }
+
+    @Test
+    public void unchangedFrames_backOffUntilChanged() {
+        FramePacer pacer = new FramePacer(VSYNC_120HZ);
+        pacer.setTargetFrameRate(60);
+        assertEquals(8, pacer.getNextFrameDelayMillis());
+
+        // 连续没有重绘时间隔逐次翻倍：33ms、66ms，之后不超过 100ms
+        pacer.onFrameResult(false);
+        assertEquals(24, pacer.getNextFrameDelayMillis());
+        pacer.onFrameResult(false);
+        assertEquals(58, pacer.getNextFrameDelayMillis());
+        pacer.onFrameResult(false);
+        pacer.onFrameResult(false);
+        assertEquals((FramePacer.MAX_IDLE_INTERVAL_NANOS - VSYNC_120HZ) / 1000000, pacer.getNextFrameDelayMillis());
+
+        pacer.onFrameResult(true);
+        assertEquals(8, pacer.getNextFrameDelayMillis());
+
+        pacer.onFrameResult(false);
+        pacer.reset();
+        assertEquals(8, pacer.getNextFrameDelayMillis());
+    }
+
+    @Test
+    public void unchangedFrames_neverShortenInterval() {
+        FramePacer pacer = new FramePacer(VSYNC_120HZ);
+        pacer.setTargetFrameRate(5);
+        final long delay = pacer.getNextFrameDelayMillis();
+
+        pacer.onFrameResult(false);
+        assertEquals(delay, pacer.getNextFrameDelayMillis());
+    }
+
+    @Test
+    public void unchangedFrames_skipVsyncsUntilIdleInterval() {
+        FramePacer pacer = new FramePacer(VSYNC_120HZ);
+        assertTrue(pacer.shouldRender(0));
+        pacer.onFrameResult(false);
+        pacer.onFrameResult(false);
+        assertEquals(4 * VSYNC_120HZ, pacer.getCurrentIntervalNanos());
+
+        // 共享时钟每个垂直同步信号都会调用，延长的间隔内不绘制
+        assertEquals(16, pacer.getNextFrameDelayMillis(VSYNC_120HZ));
+        assertFalse(pacer.shouldRender(VSYNC_120HZ));
+        assertFalse(pacer.shouldRender(3 * VSYNC_120HZ));
+        assertEquals(0, pacer.getNextFrameDelayMillis(3 * VSYNC_120HZ));
+        assertTrue(pacer.shouldRender(4 * VSYNC_120HZ));
+
+        pacer.onFrameResult(true);
+        assertEquals(VSYNC_120HZ, pacer.getCurrentIntervalNanos());
+        assertTrue(pacer.shouldRender(5 * VSYNC_120HZ));
+    }
+
+    @Test
+    public void nextFrameDelay_countsFromLastRenderedFrame() {
+        FramePacer pacer = new FramePacer(VSYNC_120HZ);
+        pacer.setTargetFrameRate(30);
+        assertEquals(0, pacer.getNextFrameDelayMillis(0));
+
+        assertTrue(pacer.shouldRender(0));
+        assertEquals(pacer.getNextFrameDelayMillis(), pacer.getNextFrameDelayMillis(0));
+        // 跳过的帧只需等待剩下的时间
+        assertFalse(pacer.shouldRender(VSYNC_120HZ));
+        assertEquals(16, pacer.getNextFrameDelayMillis(VSYNC_120HZ));
+    }
+
+    @Test
+    public void distanceTo_detectsSubPixelMotion() {
+        SunBabyModel model = new SunBabyModel();
+        model.setSize(360, 360);
+        SunFrame a = model.newFrame();
+        SunFrame b = model.newFrame();
+
+        // 缓慢升起阶段，相邻两个 120Hz 帧之间只有光芒旋转与太阳上升不足一个像素
+        model.frameAt(1000, a);
+        model.frameAt(1008, b);
+        assertTrue(a.distanceTo(b) < 1);
+
+        // 快速升起阶段的移动远超一个像素
+        model.frameAt(2550, a);
+        model.frameAt(2600, b);
+        assertTrue(a.distanceTo(b) > 1);
+        assertEquals(0, a.distanceTo(a), 0);
+    }
+
+    private static int countRendered(FramePacer pacer, long vsyncInterval, int vsyncs) {
+        int rendered = 0;
+        for (int i = 0; i < vsyncs; i++) {
+            if (pacer.shouldRender(i * vsyncInterval)) rendered++;
+        }
+        return rendered;
+    }
+}
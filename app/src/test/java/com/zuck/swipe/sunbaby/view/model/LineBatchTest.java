@@ -0,0 +1,63 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LineBatchTest {
+
+    private SunBabyModel model;
+
+    private SunFrame frame;
+
+    private LineBatch batch;
+
+    @Before
+    public void setUp() {
+        model = new SunBabyModel();
+        model.setSize(360, 360);
+        frame = model.newFrame();
+        batch = new LineBatch(model.getRayCount());
+    }
+
+    @Test
+    public void update_mergesHorizonAndRays() {
+        model.frameAt(3000, frame);
+        batch.update(model, frame);
+
+        assertEquals(frame.rayPointCount + 4, batch.pointCount);
+        assertEquals(30, batch.points[0], 0);
+        assertEquals(270, batch.points[1], 0);
+        assertEquals(330, batch.points[2], 0);
+        assertEquals(270, batch.points[3], 0);
+        for (int i = 0; i < frame.rayPointCount; i++) {
+            assertEquals(frame.rayPoints[i], batch.points[i + 4], 0);
+        }
+    }
+
+    @Test
+    public void update_followsFrameAndLayout() {
+        model.frameAt(3000, frame);
+        batch.update(model, frame);
+
+        model.frameAt(3500, frame);
+        batch.update(model, frame);
+        for (int i = 0; i < frame.rayPointCount; i++) {
+            assertEquals(frame.rayPoints[i], batch.points[i + 4], 0);
+        }
+
+        model.setSize(720, 720);
+        model.frameAt(3500, frame);
+        batch.update(model, frame);
+        assertEquals(60, batch.points[0], 0);
+        assertEquals(frame.rayPointCount + 4, batch.pointCount);
+    }
+
+    @Test
+    public void fits_dependsOnRayCount() {
+        assertTrue(batch.fits(model));
+        model.setRayCount(12);
+        assertFalse(batch.fits(model));
+    }
+}
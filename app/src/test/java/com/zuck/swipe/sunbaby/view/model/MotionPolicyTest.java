@@ -0,0 +1,121 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 模拟系统的动画时长缩放比例，校验播放时间的换算与减弱动态模式下的画面
+ */
+public class MotionPolicyTest {
+
+    private static final float DELTA = 1e-3f;
+
+    private MotionPolicy policy;
+
+    private SunBabyModel model;
+
+    @Before
+    public void setUp() {
+        policy = new MotionPolicy();
+        model = new SunBabyModel();
+        model.setSize(360, 360);
+    }
+
+    @Test
+    public void defaultScale_playsNormally() {
+        assertFalse(policy.isReduced());
+        assertTrue(policy.needsFrames());
+        assertEquals(FramePacer.FRAME_RATE_NATIVE, policy.getFrameRateCap());
+        assertEquals(1234, policy.toPlayTime(1234));
+        assertFrameEquals(model.frameAt(3100, model.newFrame()), policy.frameAt(model, 3100, model.newFrame()));
+    }
+
+    @Test
+    public void nonZeroScale_stretchesPlayTime() {
+        policy.setDurationScale(2);
+
+        assertFalse(policy.isReduced());
+        assertEquals(500, policy.toPlayTime(1000));
+        assertEquals(1000, policy.toElapsedMillis(500));
+    }
+
+    @Test
+    public void zeroScale_showsStaticFrameWithoutFrameCallbacks() {
+        policy.setDurationScale(0);
+
+        assertTrue(policy.isReduced());
+        assertFalse(policy.needsFrames());
+        // 不会除以 0
+        assertEquals(1000, policy.toPlayTime(1000));
+        assertEquals(1000, policy.toElapsedMillis(1000));
+
+        SunFrame expected = model.frameAtProgress(0, 1, model.newFrame());
+        for (long playTime = 0; playTime < SunBabyTimeline.CYCLE_DURATION * 2; playTime += 97) {
+            SunFrame frame = policy.frameAt(model, playTime, model.newFrame());
+            assertFrameEquals(expected, frame);
+            assertTrue(frame.eyesOpen);
+        }
+        assertEquals(SunBabyTimeline.progressOffsetY(1) * model.getScale(), expected.offsetY, DELTA);
+    }
+
+    @Test
+    public void zeroScale_pulseIsSlowAndLowFrameRate() {
+        policy.setReducedMotion(MotionPolicy.REDUCED_MOTION_PULSE);
+        policy.setDurationScale(0);
+
+        assertTrue(policy.needsFrames());
+        assertEquals(MotionPolicy.PULSE_FRAME_RATE, policy.getFrameRateCap());
+
+        SunFrame top = policy.frameAt(model, 0, model.newFrame());
+        SunFrame bottom = policy.frameAt(model, MotionPolicy.PULSE_DURATION / 2, model.newFrame());
+        assertEquals(SunBabyTimeline.progressOffsetY(1), top.offsetY, DELTA);
+        assertEquals(SunBabyTimeline.progressOffsetY(MotionPolicy.PULSE_MIN_PROGRESS), bottom.offsetY, DELTA);
+        // 光芒不旋转
+        assertEquals(0, bottom.spin, 0);
+        assertFrameEquals(top, policy.frameAt(model, MotionPolicy.PULSE_DURATION, model.newFrame()));
+    }
+
+    @Test
+    public void zeroScale_ignoredWhenReducedMotionDisabled() {
+        policy.setReducedMotion(MotionPolicy.REDUCED_MOTION_NONE);
+        policy.setDurationScale(0);
+
+        assertFalse(policy.isReduced());
+        assertTrue(policy.needsFrames());
+        assertEquals(1000, policy.toPlayTime(1000));
+    }
+
+    @Test
+    public void zeroScale_progressModeKeepsProgress() {
+        policy.setDurationScale(0);
+
+        SunFrame frame = policy.frameAtProgress(model, 3100, .5f, model.newFrame());
+        assertEquals(SunBabyTimeline.progressOffsetY(.5f), frame.offsetY, DELTA);
+        assertEquals(0, frame.spin, 0);
+    }
+
+    @Test
+    public void setDurationScale_sanitizesInput() {
+        policy.setDurationScale(-1);
+        assertEquals(0, policy.getDurationScale(), 0);
+
+        policy.setDurationScale(Float.NaN);
+        assertEquals(1, policy.getDurationScale(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setReducedMotion_rejectsUnknownMode() {
+        policy.setReducedMotion(3);
+    }
+
+    private static void assertFrameEquals(SunFrame expected, SunFrame actual) {
+        assertEquals(expected.spin, actual.spin, 0);
+        assertEquals(expected.offsetY, actual.offsetY, 0);
+        assertEquals(expected.eyesOpen, actual.eyesOpen);
+        assertEquals(expected.eyesTurn, actual.eyesTurn, 0);
+        assertEquals(expected.arcSweepAngle, actual.arcSweepAngle, 0);
+        assertArrayEquals(expected.rayPoints, actual.rayPoints, 0);
+    }
+}
@@ -0,0 +1,62 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ProgressSmootherTest {
+
+    private static final float DELTA = 1e-4f;
+
+    @Test
+    public void update_approachesTargetIndependentOfFrameRate() {
+        ProgressSmoother at60 = new ProgressSmoother(100);
+        ProgressSmoother at30 = new ProgressSmoother(100);
+        at60.update(0);
+        at30.update(0);
+        at60.setTarget(1);
+        at30.setTarget(1);
+
+        for (long t = 16; t <= 96; t += 16) {
+            at60.update(t);
+        }
+        for (long t = 32; t <= 96; t += 32) {
+            at30.update(t);
+        }
+
+        assertEquals(1 - Math.exp(-96 / 100.), at60.getValue(), DELTA);
+        assertEquals(at60.getValue(), at30.getValue(), DELTA);
+    }
+
+    @Test
+    public void update_settlesOnTarget() {
+        ProgressSmoother smoother = new ProgressSmoother(50);
+        smoother.update(0);
+        smoother.setTarget(.5f);
+        smoother.update(2000);
+
+        assertTrue(smoother.isSettled());
+        assertEquals(.5f, smoother.getValue(), 0);
+    }
+
+    @Test
+    public void update_firstCallOnlyRecordsTime() {
+        ProgressSmoother smoother = new ProgressSmoother(100);
+        smoother.setTarget(1);
+        assertEquals(0, smoother.update(5000), 0);
+
+        smoother.resetClock();
+        assertEquals(0, smoother.update(9000), 0);
+        assertTrue(smoother.update(9100) > 0);
+    }
+
+    @Test
+    public void snapTo_skipsSmoothing() {
+        ProgressSmoother smoother = new ProgressSmoother(100);
+        smoother.snapTo(.75f);
+
+        assertEquals(.75f, smoother.getValue(), 0);
+        assertEquals(.75f, smoother.getTarget(), 0);
+        assertTrue(smoother.isSettled());
+    }
+}
@@ -0,0 +1,164 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import static org.junit.Assert.*;
+
+public class SharedFrameCacheTest {
+
+    private static final String KEY = "360x360";
+
+    private static final long PLAY_TIME = 3100;
+
+    private SharedFrameCache cache;
+
+    private SunBabyModel model;
+
+    @Before
+    public void setUp() {
+        cache = new SharedFrameCache();
+        model = new SunBabyModel();
+        model.setSize(360, 360);
+    }
+
+    @Test
+    public void frameAt_computesOncePerKeyAndFrame() {
+        SunFrame first = model.newFrame();
+        SunFrame second = model.newFrame();
+
+        cache.beginFrame();
+        cache.frameAt(KEY, model, PLAY_TIME, first);
+        cache.frameAt(KEY, model, PLAY_TIME, second);
+        cache.endFrame();
+
+        assertEquals(1, cache.getComputeCount());
+        assertNotSame(first, second);
+        assertFrameEquals(model.frameAt(PLAY_TIME, model.newFrame()), second);
+    }
+
+    @Test
+    public void frameAt_recomputesForNewFrameAndKey() {
+        SunBabyModel small = new SunBabyModel();
+        small.setSize(120, 120);
+        SunFrame frame = model.newFrame();
+
+        cache.beginFrame();
+        cache.frameAt(KEY, model, PLAY_TIME, frame);
+        cache.frameAt("120x120", small, PLAY_TIME, frame);
+        assertEquals(2, cache.getComputeCount());
+        assertFrameEquals(small.frameAt(PLAY_TIME, small.newFrame()), frame);
+        cache.endFrame();
+
+        cache.beginFrame();
+        cache.frameAt(KEY, model, PLAY_TIME + 16, frame);
+        assertEquals(1, cache.getComputeCount());
+        assertFrameEquals(model.frameAt(PLAY_TIME + 16, model.newFrame()), frame);
+        cache.endFrame();
+    }
+
+    @Test
+    public void endFrame_removesUnusedKeys() {
+        SunFrame frame = model.newFrame();
+
+        cache.beginFrame();
+        cache.frameAt(KEY, model, PLAY_TIME, frame);
+        cache.frameAt("other", model, PLAY_TIME, frame);
+        cache.endFrame();
+        assertEquals(2, cache.size());
+
+        cache.beginFrame();
+        cache.frameAt(KEY, model, PLAY_TIME, frame);
+        cache.endFrame();
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void set_copiesEveryField() throws IllegalAccessException {
+        SunFrame expected = model.frameAt(PLAY_TIME, model.newFrame());
+        SunFrame copy = model.newFrame();
+        copy.set(expected);
+
+        assertFrameEquals(expected, copy);
+        assertEquals(0, copy.distanceTo(expected), 0);
+
+        // 每个字段都取与默认值不同且互不相同的值，新增字段后漏掉复制也会被发现
+        SunFrame source = model.newFrame();
+        float value = 1;
+        for (Field field : SunFrame.class.getFields()) {
+            if (Modifier.isStatic(field.getModifiers())) continue;
+
+            final Class<?> type = field.getType();
+            if (type == float.class) {
+                field.setFloat(source, value++);
+            } else if (type == boolean.class) {
+                field.setBoolean(source, !field.getBoolean(source));
+            } else if (type == float[].class) {
+                final float[] array = (float[]) field.get(source);
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = value++;
+                }
+            } else if (type != int.class) {
+                fail("Unhandled field " + field.getName());
+            }
+        }
+        source.rayPointCount = source.rayPoints.length;
+        source.eyePointCount = source.eyePoints.length;
+
+        copy = model.newFrame();
+        copy.set(source);
+        for (Field field : SunFrame.class.getFields()) {
+            if (Modifier.isStatic(field.getModifiers())) continue;
+
+            if (field.getType() == float[].class) {
+                assertArrayEquals(field.getName(), (float[]) field.get(source), (float[]) field.get(copy), 0);
+            } else {
+                assertEquals(field.getName(), field.get(source), field.get(copy));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void set_rejectsDifferentRayCount() {
+        new SunFrame(8).set(new SunFrame(12));
+    }
+
+    private static void assertFrameEquals(SunFrame expected, SunFrame actual) {
+        assertEquals(expected.spin, actual.spin, 0);
+        assertEquals(expected.offsetY, actual.offsetY, 0);
+        assertEquals(expected.squashX, actual.squashX, 0);
+        assertEquals(expected.squashY, actual.squashY, 0);
+        assertEquals(expected.eyesOpen, actual.eyesOpen);
+        assertEquals(expected.eyesTurn, actual.eyesTurn, 0);
+
+        assertEquals(expected.arcLeft, actual.arcLeft, 0);
+        assertEquals(expected.arcTop, actual.arcTop, 0);
+        assertEquals(expected.arcRight, actual.arcRight, 0);
+        assertEquals(expected.arcBottom, actual.arcBottom, 0);
+        assertEquals(expected.arcStartAngle, actual.arcStartAngle, 0);
+        assertEquals(expected.arcSweepAngle, actual.arcSweepAngle, 0);
+
+        // 数组只比较有效长度以内的部分
+        assertEquals(expected.rayPointCount, actual.rayPointCount);
+        for (int i = 0; i < expected.rayPointCount; i++) {
+            assertEquals(expected.rayPoints[i], actual.rayPoints[i], 0);
+        }
+
+        assertEquals(expected.leftEyeX, actual.leftEyeX, 0);
+        assertEquals(expected.rightEyeX, actual.rightEyeX, 0);
+        assertEquals(expected.eyesY, actual.eyesY, 0);
+        assertEquals(expected.eyePointCount, actual.eyePointCount);
+        for (int i = 0; i < expected.eyePointCount; i++) {
+            assertEquals(expected.eyePoints[i], actual.eyePoints[i], 0);
+        }
+        assertEquals(expected.eyesVisible, actual.eyesVisible);
+
+        assertEquals(expected.boundsLeft, actual.boundsLeft, 0);
+        assertEquals(expected.boundsTop, actual.boundsTop, 0);
+        assertEquals(expected.boundsRight, actual.boundsRight, 0);
+        assertEquals(expected.boundsBottom, actual.boundsBottom, 0);
+    }
+}
@@ -0,0 +1,107 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * 确保每帧的动画更新（包括图形计算）不会分配任何对象
+ */
+public class SunBabyModelAllocationTest {
+
+    private static final long FRAME_INTERVAL = 16;
+
+    private static final long SIMULATED_DURATION = 5 * 1000;
+
+    /**
+     * 重复测量的次数，取其中的最小值，排除 JIT 编译、GC 等偶发的分配
+     */
+    private static final int MEASUREMENTS = 5;
+
+    /**
+     * 要测量的一段播放
+     */
+    private interface Playback {
+        void play(long startTime);
+    }
+
+    @Test
+    public void frameAt_allocatesNothingPerFrame() throws Exception {
+        final SunBabyModel model = new SunBabyModel();
+        model.setSize(360, 360);
+        final SunFrame frame = model.newFrame();
+
+        assertEquals(0, minAllocatedBytes(new Playback() {
+            @Override
+            public void play(long startTime) {
+                simulateFrames(model, frame, startTime);
+            }
+        }, SunBabyTimeline.CYCLE_DURATION));
+    }
+
+    @Test
+    public void frameAtProgress_allocatesNothingPerFrame() throws Exception {
+        final SunBabyModel model = new SunBabyModel();
+        model.setSize(360, 360);
+        final SunFrame frame = model.newFrame();
+        final ProgressSmoother smoother = new ProgressSmoother();
+
+        assertEquals(0, minAllocatedBytes(new Playback() {
+            @Override
+            public void play(long startTime) {
+                simulateProgressFrames(model, smoother, frame, startTime);
+            }
+        }, SIMULATED_DURATION));
+    }
+
+    /**
+     * 先在同一段播放时间上预热，再重复测量若干次，返回分配字节数的最小值（已扣除读取计数本身的开销）
+     */
+    private static long minAllocatedBytes(Playback playback, long startTime) {
+        final com.sun.management.ThreadMXBean threadBean = threadBean();
+        final long threadId = Thread.currentThread().getId();
+
+        // 预热与测量覆盖同一段播放时间，排除类加载与 JIT 编译等一次性开销
+        for (int i = 0; i < MEASUREMENTS; i++) {
+            playback.play(startTime);
+        }
+
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < MEASUREMENTS; i++) {
+            final long overheadStart = threadBean.getThreadAllocatedBytes(threadId);
+            final long overheadEnd = threadBean.getThreadAllocatedBytes(threadId);
+            final long overhead = overheadEnd - overheadStart;
+
+            final long before = threadBean.getThreadAllocatedBytes(threadId);
+            playback.play(startTime);
+            final long after = threadBean.getThreadAllocatedBytes(threadId);
+            min = Math.min(min, after - before - overhead);
+        }
+        return min;
+    }
+
+    private static void simulateProgressFrames(SunBabyModel model, ProgressSmoother smoother, SunFrame frame, long startTime) {
+        for (long t = startTime; t < startTime + SIMULATED_DURATION; t += FRAME_INTERVAL) {
+            smoother.setTarget((float) (t - startTime) / SIMULATED_DURATION);
+            model.frameAtProgress(t, smoother.update(t), frame);
+        }
+    }
+
+    private static void simulateFrames(SunBabyModel model, SunFrame frame, long startTime) {
+        for (long t = startTime; t < startTime + SIMULATED_DURATION; t += FRAME_INTERVAL) {
+            model.frameAt(t, frame);
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        return threadBean;
+    }
+}
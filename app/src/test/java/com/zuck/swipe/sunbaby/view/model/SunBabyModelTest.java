@@ -0,0 +1,310 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 以 360x360 的绘制区域为基准，校验关键时刻的画面几何数据
+ * <p>
+ * 地平线从 (30, 270) 开始，长 300；太阳半径 90，中心X值 180；光芒内外半径分别为 112、127
+ */
+public class SunBabyModelTest {
+
+    private static final float DELTA = 1e-3f;
+
+    /**
+     * 第二段快速上升结束、眼睛动画开始的时间
+     */
+    private static final long EYES_START = 2700;
+
+    private SunBabyModel model;
+
+    private SunFrame frame;
+
+    @Before
+    public void setUp() {
+        model = new SunBabyModel();
+        model.setSize(360, 360);
+        frame = model.newFrame();
+    }
+
+    @Test
+    public void setSize_layoutsHorizon() {
+        assertEquals(30, model.getLineStartX(), DELTA);
+        assertEquals(270, model.getLineStartY(), DELTA);
+        assertEquals(300, model.getLineLength(), DELTA);
+        assertEquals(272.5f, model.getHorizonClipBottom(), DELTA);
+    }
+
+    @Test
+    public void frameAt_start_sunBelowHorizon() {
+        model.frameAt(0, frame);
+
+        assertEquals(90, frame.arcLeft, DELTA);
+        assertEquals(200, frame.arcTop, DELTA);
+        assertEquals(270, frame.arcRight, DELTA);
+        assertEquals(380, frame.arcBottom, DELTA);
+
+        // offsetY = 20，对应 asin(20 / 90)
+        final float offsetAngle = (float) Math.toDegrees(Math.asin(20 / 90.));
+        assertEquals(-180 + offsetAngle, frame.arcStartAngle, DELTA);
+        assertEquals(180 - offsetAngle * 2, frame.arcSweepAngle, DELTA);
+
+        // 眼睛中心 Y 值 284，在地平线以下
+        assertEquals(284, frame.eyesY, DELTA);
+        assertFalse(frame.eyesVisible);
+
+        // 只有朝向 225°、270°、315° 的三道光芒在地平线之上
+        assertEquals(12, frame.rayPointCount);
+        assertRayPresent(180, 178, 180, 163);
+
+        assertEquals(272.5f, frame.boundsBottom, DELTA);
+        assertEquals(180 - 127 - 2.5f, frame.boundsLeft, DELTA);
+        assertEquals(290 - 127 - 2.5f, frame.boundsTop, DELTA);
+    }
+
+    @Test
+    public void frameAt_riseFast_squashesArc() {
+        // 快速上升的中点，挤压形变达到最大值 15
+        model.frameAt(2600, frame);
+
+        assertEquals(15, frame.squashX, DELTA);
+        assertEquals(-15, frame.squashY, DELTA);
+        assertEquals(-7, frame.offsetY, DELTA);
+        assertEquals(75, frame.arcLeft, DELTA);
+        assertEquals(188, frame.arcTop, DELTA);
+        assertEquals(285, frame.arcRight, DELTA);
+        assertEquals(338, frame.arcBottom, DELTA);
+    }
+
+    @Test
+    public void frameAt_blinks() {
+        model.frameAt(EYES_START + 300, frame);
+        assertTrue(frame.eyesVisible);
+
+        model.frameAt(EYES_START + 410, frame);
+        assertFalse(frame.eyesOpen);
+        assertFalse(frame.eyesVisible);
+
+        model.frameAt(EYES_START + 1900, frame);
+        assertFalse(frame.eyesVisible);
+
+        model.frameAt(EYES_START + 2000, frame);
+        assertTrue(frame.eyesVisible);
+    }
+
+    @Test
+    public void frameAt_eyesTurnRight() {
+        model.frameAt(EYES_START + 1000, frame);
+        assertEquals(180, frame.rightEyeX, DELTA);
+        assertEquals(132.5f, frame.leftEyeX, DELTA);
+
+        // 眼睛转动的最大距离为 (90 + 5) / 2
+        model.frameAt(EYES_START + 1350, frame);
+        assertEquals(227.5f, frame.rightEyeX, DELTA);
+        assertEquals(180, frame.leftEyeX, DELTA);
+        assertTrue(frame.boundsRight >= frame.rightEyeX + model.getEyesRadius());
+    }
+
+    @Test
+    public void frameAt_repeatsEveryCycle() {
+        SunFrame next = model.newFrame();
+        for (long t = 0; t < SunBabyTimeline.CYCLE_DURATION; t += 50) {
+            model.frameAt(t, frame);
+            model.frameAt(t + SunBabyTimeline.CYCLE_DURATION, next);
+
+            assertEquals(frame.offsetY, next.offsetY, DELTA);
+            assertEquals(frame.squashX, next.squashX, DELTA);
+            assertEquals(frame.squashY, next.squashY, DELTA);
+            assertEquals(frame.eyesVisible, next.eyesVisible);
+            assertEquals(frame.rightEyeX, next.rightEyeX, DELTA);
+        }
+    }
+
+    @Test
+    public void frameAt_boundsContainArc() {
+        for (long t = 0; t < SunBabyTimeline.CYCLE_DURATION; t += 16) {
+            model.frameAt(t, frame);
+
+            assertTrue(frame.boundsLeft <= frame.arcLeft - model.getSunStrokeWidth() * .5f);
+            assertTrue(frame.boundsTop <= frame.arcTop - model.getSunStrokeWidth() * .5f);
+            assertTrue(frame.boundsRight >= frame.arcRight + model.getSunStrokeWidth() * .5f);
+            assertTrue(frame.boundsBottom <= model.getHorizonClipBottom());
+            assertFalse(Float.isNaN(frame.arcStartAngle));
+        }
+    }
+
+    @Test
+    public void setDurations_scalesCycle() {
+        SunBabyModel slow = new SunBabyModel();
+        slow.setSize(360, 360);
+        slow.setDurations(SunBabyTimeline.CYCLE_DURATION * 2, SunBabyTimeline.SPIN_DURATION);
+        SunFrame slowFrame = slow.newFrame();
+        SunFrame spinFrame = model.newFrame();
+
+        for (long t = 0; t < SunBabyTimeline.CYCLE_DURATION; t += 100) {
+            model.frameAt(t, frame);
+            slow.frameAt(t * 2, slowFrame);
+
+            assertEquals(frame.offsetY, slowFrame.offsetY, DELTA);
+            assertEquals(frame.squashX, slowFrame.squashX, DELTA);
+            assertEquals(frame.eyesVisible, slowFrame.eyesVisible);
+        }
+
+        // 旋转时长未修改，旋转角度只取决于播放时间，与循环时长无关
+        for (long t = 0; t < SunBabyTimeline.SPIN_DURATION; t += 7) {
+            model.frameAt(t, spinFrame);
+            slow.frameAt(t, slowFrame);
+            assertEquals(spinFrame.spin, slowFrame.spin, 0);
+        }
+    }
+
+    @Test
+    public void setRayCount_rebuildsRays() {
+        model.setRayCount(4);
+        frame = model.newFrame();
+        assertEquals(16, frame.rayPoints.length);
+        assertEquals(90, model.getRaySeparationAngle(), DELTA);
+
+        // 只有朝上的光芒在地平线之上，内外半径不变
+        model.frameAt(0, frame);
+        assertEquals(4, frame.rayPointCount);
+        assertRayPresent(180, 178, 180, 163);
+    }
+
+    @Test
+    public void setStrokeWidths_relayouts() {
+        model.setStrokeWidths(8, 20);
+        assertEquals(274, model.getHorizonClipBottom(), DELTA);
+
+        // 光芒内半径 = 90 + 12 + 20
+        model.frameAt(0, frame);
+        assertRayPresent(180, 290 - 122, 180, 290 - 137);
+    }
+
+    @Test
+    public void setScale_keepsProportions() {
+        SunBabyModel large = new SunBabyModel();
+        large.setScale(2);
+        large.setStrokeWidths(SunBabyModel.DEFAULT_LINE_STROKE_WIDTH * 2, SunBabyModel.DEFAULT_SUN_STROKE_WIDTH * 2);
+        large.setSize(720, 720);
+        SunFrame largeFrame = large.newFrame();
+
+        assertEquals(model.getEyesRadius() * 2, large.getEyesRadius(), DELTA);
+        for (long t = 0; t < SunBabyTimeline.CYCLE_DURATION; t += 100) {
+            model.frameAt(t, frame);
+            large.frameAt(t, largeFrame);
+
+            assertEquals(frame.arcLeft * 2, largeFrame.arcLeft, DELTA);
+            assertEquals(frame.arcTop * 2, largeFrame.arcTop, DELTA);
+            assertEquals(frame.arcBottom * 2, largeFrame.arcBottom, DELTA);
+            assertEquals(frame.arcStartAngle, largeFrame.arcStartAngle, DELTA);
+            assertEquals(frame.eyesY * 2, largeFrame.eyesY, DELTA);
+            assertEquals(frame.eyesVisible, largeFrame.eyesVisible);
+            assertEquals(frame.rayPointCount, largeFrame.rayPointCount);
+            for (int i = 0; i < frame.rayPointCount; i++) {
+                assertEquals(frame.rayPoints[i] * 2, largeFrame.rayPoints[i], 1e-2f);
+            }
+            assertEquals(frame.boundsTop * 2, largeFrame.boundsTop, DELTA);
+        }
+    }
+
+    @Test
+    public void frameAtProgress_mapsProgressToHeight() {
+        model.frameAtProgress(0, 0, frame);
+        assertEquals(20, frame.offsetY, DELTA);
+        assertEquals(200, frame.arcTop, DELTA);
+        assertEquals(0, frame.squashX, DELTA);
+
+        // 进度为 1 时升到最高处，与循环中第二次缓慢升起结束时相同
+        model.frameAtProgress(0, 1, frame);
+        assertEquals(-40, frame.offsetY, DELTA);
+        assertEquals(-180 - (float) Math.toDegrees(Math.asin(40 / 90.)), frame.arcStartAngle, DELTA);
+
+        model.frameAtProgress(0, .5f, frame);
+        assertEquals(-10, frame.offsetY, DELTA);
+
+        model.frameAtProgress(0, 2, frame);
+        assertEquals(-40, frame.offsetY, DELTA);
+    }
+
+    @Test
+    public void frameAtProgress_followsScriptHeightRange() {
+        model.setScript(new SunBabyScript.Builder(4000, 24000)
+                .keyframe(SunBabyScript.Track.OFFSET_Y, 0, 10)
+                .keyframe(SunBabyScript.Track.OFFSET_Y, 2000, -30)
+                .keyframe(SunBabyScript.Track.OFFSET_Y, 4000, 10)
+                .build());
+
+        model.frameAtProgress(0, 0, frame);
+        assertEquals(10, frame.offsetY, DELTA);
+        model.frameAtProgress(0, 1, frame);
+        assertEquals(-30, frame.offsetY, DELTA);
+        model.frameAtProgress(0, .5f, frame);
+        assertEquals(-10, frame.offsetY, DELTA);
+    }
+
+    @Test
+    public void frameAtProgress_keepsAmbientMotion() {
+        model.frameAtProgress(6000, .5f, frame);
+        float spin = frame.spin;
+        model.frameAtProgress(12000, .5f, frame);
+
+        assertEquals(spin + 90, frame.spin, DELTA);
+        assertEquals(-10, frame.offsetY, DELTA);
+    }
+
+    @Test
+    public void loopFrameAt_spinsWholeRaySeparationsPerCycle() {
+        // 实际每个循环旋转 88.5 度，取最接近的 90 度
+        assertEquals(90, model.getLoopSpinPerCycle(), DELTA);
+
+        SunFrame end = model.newFrame();
+        model.loopFrameAt(0, frame);
+        model.loopFrameAt(SunBabyTimeline.CYCLE_DURATION - 1, end);
+        assertEquals(90 * (SunBabyTimeline.CYCLE_DURATION - 1f) / SunBabyTimeline.CYCLE_DURATION, end.spin, DELTA);
+
+        // 除旋转外与 frameAt 相同，下一个循环的起点与第一帧完全相同
+        model.frameAt(3000, end);
+        model.loopFrameAt(3000, frame);
+        assertEquals(end.offsetY, frame.offsetY, 0);
+        model.loopFrameAt(0, frame);
+        model.loopFrameAt(SunBabyTimeline.CYCLE_DURATION, end);
+        assertEquals(frame.rayPointCount, end.rayPointCount);
+        for (int i = 0; i < frame.rayPointCount; i++) {
+            assertEquals(frame.rayPoints[i], end.rayPoints[i], 0);
+        }
+
+        model.setRayCount(4);
+        assertEquals(90, model.getLoopSpinPerCycle(), DELTA);
+    }
+
+    @Test
+    public void frameAt_fillsEyePoints() {
+        model.frameAt(EYES_START, frame);
+        assertTrue(frame.eyesVisible);
+        assertEquals(4, frame.eyePointCount);
+        assertEquals(frame.leftEyeX, frame.eyePoints[0], 0);
+        assertEquals(frame.eyesY, frame.eyePoints[1], 0);
+        assertEquals(frame.rightEyeX, frame.eyePoints[2], 0);
+        assertEquals(frame.eyesY, frame.eyePoints[3], 0);
+
+        model.frameAt(0, frame);
+        assertFalse(frame.eyesVisible);
+        assertEquals(0, frame.eyePointCount);
+    }
+
+    private void assertRayPresent(float startX, float startY, float stopX, float stopY) {
+        for (int i = 0; i < frame.rayPointCount; i += 4) {
+            if (Math.abs(frame.rayPoints[i] - startX) < DELTA
+                    && Math.abs(frame.rayPoints[i + 1] - startY) < DELTA
+                    && Math.abs(frame.rayPoints[i + 2] - stopX) < DELTA
+                    && Math.abs(frame.rayPoints[i + 3] - stopY) < DELTA) {
+                return;
+            }
+        }
+        fail("ray (" + startX + ", " + startY + ") - (" + stopX + ", " + stopY + ") not found");
+    }
+}
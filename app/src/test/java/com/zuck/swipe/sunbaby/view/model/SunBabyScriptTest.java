@@ -0,0 +1,125 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+import com.zuck.swipe.sunbaby.view.model.SunBabyScript.Track;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SunBabyScriptTest {
+
+    private static final float DELTA = 1e-4f;
+
+    private final SunBabyScript script = new SunBabyScript.Builder(1000, 2000)
+            .keyframe(Track.OFFSET_Y, 0, 10)
+            .keyframe(Track.OFFSET_Y, 200, 20)
+            .keyframe(Track.OFFSET_Y, 400, 0, Easing.SINE_IN_OUT)
+            .keyframe(Track.OFFSET_Y, 600, -10, Easing.STEP)
+            .keyframe(Track.EYES_OPEN, 0, 1)
+            .keyframe(Track.EYES_OPEN, 500, 0, Easing.STEP)
+            .keyframe(Track.EYES_OPEN, 700, 1, Easing.STEP)
+            .build();
+
+    @Test
+    public void sample_interpolatesBetweenKeyframes() {
+        assertEquals(10, script.sample(Track.OFFSET_Y, 0), DELTA);
+        assertEquals(15, script.sample(Track.OFFSET_Y, 100), DELTA);
+        assertEquals(20, script.sample(Track.OFFSET_Y, 200), DELTA);
+        assertEquals(10, script.sample(Track.OFFSET_Y, 300), DELTA);
+        assertEquals(20 - 20 * Easing.SINE_IN_OUT.interpolate(.25f), script.sample(Track.OFFSET_Y, 250), DELTA);
+    }
+
+    @Test
+    public void sample_stepHoldsUntilKeyframe() {
+        assertEquals(0, script.sample(Track.OFFSET_Y, 599.9f), DELTA);
+        assertEquals(-10, script.sample(Track.OFFSET_Y, 600), DELTA);
+
+        // 最后一个关键帧之后保持不变
+        assertEquals(-10, script.sample(Track.OFFSET_Y, 999), DELTA);
+    }
+
+    @Test
+    public void sample_emptyTrackKeepsDefault() {
+        assertEquals(0, script.sample(Track.SQUASH_X, 300), DELTA);
+        assertEquals(0, script.sample(Track.SPIN, 1500), DELTA);
+    }
+
+    @Test
+    public void evaluate_loopsEachTrack() {
+        SunFrame frame = new SunFrame(8);
+        script.evaluate(1100, frame);
+        assertEquals(15, frame.offsetY, DELTA);
+        assertTrue(frame.eyesOpen);
+
+        script.evaluate(1550, frame);
+        assertFalse(frame.eyesOpen);
+    }
+
+    @Test
+    public void easing_sineHalvesMatchSineInOut() {
+        for (float f = 0; f < 1; f += .05f) {
+            float inOut = Easing.SINE_IN_OUT.interpolate(f);
+            float expected = f < .5f ? Easing.SINE_IN.interpolate(f * 2) * .5f : .5f + Easing.SINE_OUT.interpolate(f * 2 - 1) * .5f;
+            assertEquals(expected, inOut, DELTA);
+        }
+    }
+
+    @Test
+    public void defaultScript_matchesTimelineConstants() {
+        SunFrame frame = new SunFrame(8);
+        SunBabyTimeline.SCRIPT.evaluate(SunBabyTimeline.RISE1_DURATION + SunBabyTimeline.RISE_FAST_DURATION, frame);
+        assertEquals(SunBabyTimeline.DEFAULT_OFFSET_Y - SunBabyTimeline.RISE_HEIGHT - SunBabyTimeline.RISE_FAST_HEIGHT, frame.offsetY, DELTA);
+        assertEquals(0, frame.squashX, DELTA);
+
+        SunBabyTimeline.SCRIPT.evaluate(SunBabyTimeline.SPIN_DURATION / 4, frame);
+        assertEquals(90, frame.spin, DELTA);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void keyframe_rejectsOutOfOrderTimes() {
+        new SunBabyScript.Builder(1000, 2000)
+                .keyframe(Track.OFFSET_Y, 0, 0)
+                .keyframe(Track.OFFSET_Y, 500, 1)
+                .keyframe(Track.OFFSET_Y, 400, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void keyframe_requiresStartAtZero() {
+        new SunBabyScript.Builder(1000, 2000).keyframe(Track.EYES_TURN, 100, 1);
+    }
+
+    @Test
+    public void equals_comparesKeyframes() {
+        SunBabyScript copy = new SunBabyScript.Builder(1000, 2000)
+                .keyframe(Track.OFFSET_Y, 0, 10)
+                .keyframe(Track.OFFSET_Y, 200, 20)
+                .keyframe(Track.OFFSET_Y, 400, 0, Easing.SINE_IN_OUT)
+                .keyframe(Track.OFFSET_Y, 600, -10, Easing.STEP)
+                .keyframe(Track.EYES_OPEN, 0, 1)
+                .keyframe(Track.EYES_OPEN, 500, 0, Easing.STEP)
+                .keyframe(Track.EYES_OPEN, 700, 1, Easing.STEP)
+                .build();
+        assertEquals(script, copy);
+        assertEquals(script.hashCode(), copy.hashCode());
+        assertEquals(script.getKey(), copy.getKey());
+        assertNotEquals(script, SunBabyTimeline.SCRIPT);
+    }
+
+    @Test
+    public void getKey_distinguishesScriptsWithCollidingHashes() {
+        // 数组哈希中，前一个元素加 1、后一个元素减 31 时哈希值不变
+        SunBabyScript a = new SunBabyScript.Builder(1000, 2000)
+                .keyframe(Track.OFFSET_Y, 0, 0)
+                .keyframe(Track.OFFSET_Y, 31, 0)
+                .keyframe(Track.OFFSET_Y, 100, 0)
+                .build();
+        SunBabyScript b = new SunBabyScript.Builder(1000, 2000)
+                .keyframe(Track.OFFSET_Y, 0, 0)
+                .keyframe(Track.OFFSET_Y, 32, 0)
+                .keyframe(Track.OFFSET_Y, 69, 0)
+                .build();
+        assertEquals(a.hashCode(), b.hashCode());
+        assertNotEquals(a, b);
+        assertNotEquals(a.getKey(), b.getKey());
+    }
+}
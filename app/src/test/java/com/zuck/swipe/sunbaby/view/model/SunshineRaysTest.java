@@ -0,0 +1,104 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 对比原先逐条光芒求三角函数的算法与 {@link SunshineRays} 的结果，两者的耗时由 benchmark 模块的 {@code SunBabyFrameBenchmark} 中 {@code sunshineRaysLegacy} 与 {@code sunshineRays} 对比
+ */
+public class SunshineRaysTest {
+
+    private static final float SEPARATION_ANGLE = 45;
+
+    private static final float SUN_RADIUS = 90;
+
+    private static final float SPACE_SUNSHINE = 12;
+
+    private static final float SUNSHINE_LINE_LENGTH = 15;
+
+    private static final float STROKE_WIDTH = 10;
+
+    private static final float WIDTH = 360;
+
+    private static final float HORIZON_Y = 270;
+
+    private static final int FRAMES = 200000;
+
+    @Test
+    public void compute_matchesLegacyRays() {
+        SunshineRays rays = newRays();
+        float[] expected = new float[40];
+        float[] actual = new float[rays.getCount() * 4];
+
+        // 恰好水平的光芒落在地平线上，原算法的取舍取决于 double 的舍入，因此旋转角度避开 45 度的整数倍
+        for (float offsetY = -40; offsetY <= 20; offsetY += 2.5f) {
+            for (float spin = .3f; spin < 360; spin += .75f) {
+                int expectedCount = legacyCompute(spin, offsetY, expected);
+                int actualCount = rays.compute(spin, WIDTH * .5f, HORIZON_Y + offsetY, HORIZON_Y, actual);
+
+                assertEquals("spin " + spin + " offsetY " + offsetY, expectedCount, actualCount);
+                for (int i = 0; i < actualCount; i++) {
+                    assertEquals(expected[i], actual[i], 1e-3f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void compute_matchesLegacyRayCountsOverPlayback() {
+        SunshineRays rays = newRays();
+        float[] legacyOut = new float[40];
+        float[] cachedOut = new float[rays.getCount() * 4];
+
+        assertEquals(runLegacy(legacyOut), runCached(rays, cachedOut));
+    }
+
+    private static SunshineRays newRays() {
+        SunshineRays rays = new SunshineRays(SEPARATION_ANGLE);
+        float innerRadius = SUN_RADIUS + SPACE_SUNSHINE + STROKE_WIDTH;
+        rays.setRadius(innerRadius, innerRadius + SUNSHINE_LINE_LENGTH);
+        return rays;
+    }
+
+    private static long runLegacy(float[] out) {
+        long sink = 0;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            sink += legacyCompute(frame * .25f % 360, offsetYAt(frame), out);
+        }
+        return sink;
+    }
+
+    private static long runCached(SunshineRays rays, float[] out) {
+        long sink = 0;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            sink += rays.compute(frame * .25f % 360, WIDTH * .5f, HORIZON_Y + offsetYAt(frame), HORIZON_Y, out);
+        }
+        return sink;
+    }
+
+    private static float offsetYAt(int frame) {
+        return -40 + frame % 60;
+    }
+
+    /**
+     * 原 drawSunshine() 的计算方式，0 度与 360 度重复的那道光芒只记录一次
+     */
+    private static int legacyCompute(float offsetSpin, float offsetY, float[] out) {
+        int n = 0;
+        for (int a = 0; a < 360; a += SEPARATION_ANGLE) {
+            double startX = Math.cos(Math.toRadians(a + offsetSpin)) * (SUN_RADIUS + SPACE_SUNSHINE + STROKE_WIDTH) + WIDTH * .5f;
+            double startY = Math.sin(Math.toRadians(a + offsetSpin)) * (SUN_RADIUS + SPACE_SUNSHINE + STROKE_WIDTH) + offsetY + HORIZON_Y;
+
+            double stopX = Math.cos(Math.toRadians(a + offsetSpin)) * (SUN_RADIUS + SPACE_SUNSHINE + SUNSHINE_LINE_LENGTH + STROKE_WIDTH) + WIDTH * .5f;
+            double stopY = Math.sin(Math.toRadians(a + offsetSpin)) * (SUN_RADIUS + SPACE_SUNSHINE + SUNSHINE_LINE_LENGTH + STROKE_WIDTH) + offsetY + HORIZON_Y;
+            if (startY <= HORIZON_Y && stopY <= HORIZON_Y) {
+                out[n++] = (float) startX;
+                out[n++] = (float) startY;
+                out[n++] = (float) stopX;
+                out[n++] = (float) stopY;
+            }
+        }
+        return n;
+    }
+}
@@ -0,0 +1,218 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * 按 60fps 逐帧播放一个完整动画循环，统计每帧的绘制调用次数与内存分配，以 JSON 输出，便于版本之间比较。
+ * <p>
+ * 运行 {@code ./gradlew :benchmark:frameReport}，结果写入 {@code benchmark/build/reports/sunbaby/frame-report.json}。
+ */
+public final class FrameReport {
+
+    private static final int SIZE = 360;
+
+    private static final long FRAME_INTERVAL = 16;
+
+    private static final int WARMUP_CYCLES = 20;
+
+    /**
+     * 帧回调在垂直同步信号之后多久执行；postFrameCallbackDelayed 从这时开始计算延迟，在延迟结束后的下一个垂直同步信号回调
+     */
+    private static final long CALLBACK_LATENCY_NANOS = 1000000;
+
+    /**
+     * 测量常驻内存时同时存活的实例数，平摊测量误差
+     */
+    private static final int RETAINED_INSTANCES = 2000;
+
+    private FrameReport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        final SunBabyModel model = new SunBabyModel();
+        model.setSize(SIZE, SIZE);
+        final SunFrame frame = model.newFrame();
+        final LineBatch batch = new LineBatch(model.getRayCount());
+        final RecordingSunCanvas canvas = new RecordingSunCanvas();
+
+        // 预热，排除类加载与 JIT 编译期间的分配
+        for (int i = 0; i < WARMUP_CYCLES; i++) {
+            playCycle(model, frame, batch, canvas, null);
+        }
+
+        final long[] totals = new long[5];
+        final com.sun.management.ThreadMXBean threadBean = threadBean();
+        final long threadId = Thread.currentThread().getId();
+        long allocated = -1;
+        final int frames;
+        if (threadBean != null) {
+            // 读取计数本身的开销
+            final long overhead = -threadBean.getThreadAllocatedBytes(threadId) + threadBean.getThreadAllocatedBytes(threadId);
+            final long before = threadBean.getThreadAllocatedBytes(threadId);
+            frames = playCycle(model, frame, batch, canvas, totals);
+            allocated = threadBean.getThreadAllocatedBytes(threadId) - before - overhead;
+        } else {
+            frames = playCycle(model, frame, batch, canvas, totals);
+        }
+
+        final int[] redraws = new int[5], wakeups = new int[5];
+        final int[] frameRates = {FramePacer.FRAME_RATE_NATIVE, 60, 30, FramePacer.FRAME_RATE_NATIVE, 60};
+        for (int i = 0; i < frameRates.length; i++) {
+            final int[] counts = playCycle120Hz(model, frameRates[i], i >= 3);
+            redraws[i] = counts[0];
+            wakeups[i] = counts[1];
+        }
+
+        final String json = String.format(Locale.US,
+                "{\n"
+                        + "  \"size\": %d,\n"
+                        + "  \"frames\": %d,\n"
+                        + "  \"canvasCallsPerFrame\": %.3f,\n"
+                        + "  \"drawCallsPerFrame\": %.3f,\n"
+                        + "  \"maxDrawCallsPerFrame\": %d,\n"
+                        + "  \"eyeBatchesPerFrame\": %.3f,\n"
+                        + "  \"visibleRaysPerFrame\": %.3f,\n"
+                        + "  \"allocatedBytesPerFrame\": %s,\n"
+                        + "  \"allocatedBytesPerCycle\": %s,\n"
+                        + "  \"retainedBytesPerInstance\": %s,\n"
+                        + "  \"redrawsPerSecond120Hz\": {\"native\": %.2f, \"fps60\": %.2f, \"fps30\": %.2f, \"nativeSkipSubPixel\": %.2f, \"fps60SkipSubPixel\": %.2f},\n"
+                        + "  \"wakeupsPerSecond120Hz\": {\"native\": %.2f, \"fps60\": %.2f, \"fps30\": %.2f, \"nativeSkipSubPixel\": %.2f, \"fps60SkipSubPixel\": %.2f}\n"
+                        + "}\n",
+                SIZE, frames,
+                (double) totals[0] / frames,
+                (double) totals[1] / frames,
+                totals[2],
+                (double) totals[3] / frames,
+                (double) totals[4] / frames,
+                allocated < 0 ? "null" : String.format(Locale.US, "%.3f", (double) allocated / frames),
+                allocated < 0 ? "null" : String.valueOf(allocated),
+                String.format(Locale.US, "%.1f", retainedBytesPerInstance()),
+                perSecond(redraws[0]), perSecond(redraws[1]), perSecond(redraws[2]), perSecond(redraws[3]), perSecond(redraws[4]),
+                perSecond(wakeups[0]), perSecond(wakeups[1]), perSecond(wakeups[2]), perSecond(wakeups[3]), perSecond(wakeups[4]));
+
+        if (args.length > 0) {
+            final File file = new File(args[0]);
+            if (file.getParentFile() != null) file.getParentFile().mkdirs();
+            final Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+            try {
+                writer.write(json);
+            } finally {
+                writer.close();
+            }
+        }
+        System.out.print(json);
+    }
+
+    /**
+     * @param totals 为 null 时不统计；否则依次累加画布调用数、绘制调用数、单帧最大绘制调用数、眼睛的绘制调用数、可见光芒数
+     * @return 播放的帧数
+     */
+    private static int playCycle(SunBabyModel model, SunFrame frame, LineBatch batch, RecordingSunCanvas canvas, long[] totals) {
+        int frames = 0;
+        for (long t = 0; t < SunBabyTimeline.CYCLE_DURATION; t += FRAME_INTERVAL) {
+            model.frameAt(t, frame);
+            canvas.reset();
+            SunPainter.drawFrame(model, frame, batch, canvas);
+            frames++;
+
+            if (totals != null) {
+                totals[0] += canvas.getCanvasCalls();
+                totals[1] += canvas.getDrawCalls();
+                totals[2] = Math.max(totals[2], canvas.getDrawCalls());
+                totals[3] += canvas.eyeBatches;
+                totals[4] += frame.rayPointCount / 4;
+            }
+        }
+        return frames;
+    }
+
+    /**
+     * 一个实例（模型与绘制所需的两个帧对象）布局完成后常驻的堆内存，单位字节
+     */
+    private static double retainedBytesPerInstance() {
+        final Object[] instances = new Object[RETAINED_INSTANCES * 3];
+        final long before = usedHeapAfterGc();
+        for (int i = 0; i < RETAINED_INSTANCES; i++) {
+            final SunBabyModel model = new SunBabyModel();
+            model.setSize(SIZE, SIZE);
+            instances[i * 3] = model;
+            instances[i * 3 + 1] = model.newFrame();
+            instances[i * 3 + 2] = model.newFrame();
+        }
+        final long after = usedHeapAfterGc();
+        if (instances[instances.length - 1] == null) throw new AssertionError();
+        return (double) (after - before) / RETAINED_INSTANCES;
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * 在 120Hz 的屏幕上按与 Drawable 相同的方式注册帧回调并播放一个循环
+     * @param frameRate 目标帧率
+     * @param skipSubPixel 是否跳过移动不足一个像素的帧并延长唤醒间隔
+     * @return 重绘次数与帧回调的唤醒次数
+     */
+    private static int[] playCycle120Hz(SunBabyModel model, int frameRate, boolean skipSubPixel) {
+        final long vsyncNanos = 1000000000L / 120;
+        final FramePacer pacer = new FramePacer(vsyncNanos);
+        pacer.setTargetFrameRate(frameRate);
+        SunFrame drawn = model.newFrame();
+        SunFrame pending = model.newFrame();
+
+        int redraws = 0, wakeups = 0;
+        long nextWakeNanos = 0;
+        final long cycleNanos = SunBabyTimeline.CYCLE_DURATION * 1000000;
+        for (long t = 0; t < cycleNanos; t += vsyncNanos) {
+            if (t < nextWakeNanos) continue;
+            wakeups++;
+
+            if (!pacer.shouldRender(t)) {
+                nextWakeNanos = t + CALLBACK_LATENCY_NANOS + pacer.getNextFrameDelayMillis(t) * 1000000;
+                continue;
+            }
+            model.frameAt(t / 1000000, pending);
+            if (skipSubPixel && redraws > 0) {
+                final boolean changed = pending.distanceTo(drawn) >= 1;
+                pacer.onFrameResult(changed);
+                if (!changed) {
+                    nextWakeNanos = t + CALLBACK_LATENCY_NANOS + pacer.getNextFrameDelayMillis(t) * 1000000;
+                    continue;
+                }
+            }
+
+            final SunFrame swap = drawn;
+            drawn = pending;
+            pending = swap;
+            redraws++;
+            nextWakeNanos = t + CALLBACK_LATENCY_NANOS + pacer.getNextFrameDelayMillis(t) * 1000000;
+        }
+        return new int[]{redraws, wakeups};
+    }
+
+    private static double perSecond(int count) {
+        return count * 1000.0 / SunBabyTimeline.CYCLE_DURATION;
+    }
+
+    /**
+     * @return 支持统计线程内存分配时返回对应的 MXBean，否则返回 null
+     */
+    private static com.sun.management.ThreadMXBean threadBean() {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) return null;
+        final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        if (!threadBean.isThreadAllocatedMemorySupported()) return null;
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        return threadBean;
+    }
+}
@@ -0,0 +1,69 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+/**
+ * 只记录调用次数的绘制目标，每个 {@link SunCanvas} 方法对应 Android Canvas 上的一次调用，
+ * {@link #clipRect(float, float, float, float)} 对应 save 与 clipRect 两次调用
+ */
+final class RecordingSunCanvas implements SunCanvas {
+
+    int clips, restores, lines, arcs, eyeBatches, lineBatches;
+
+    /**
+     * 防止 JIT 把参数计算当作无用代码消除
+     */
+    float sink;
+
+    void reset() {
+        clips = restores = lines = arcs = eyeBatches = lineBatches = 0;
+        sink = 0;
+    }
+
+    /**
+     * 对应到 Android Canvas 上的调用总数
+     */
+    int getCanvasCalls() {
+        return clips * 2 + restores + lines + arcs + eyeBatches + lineBatches;
+    }
+
+    /**
+     * 真正产生像素的绘制调用数
+     */
+    int getDrawCalls() {
+        return lines + arcs + eyeBatches + lineBatches;
+    }
+
+    @Override
+    public void clipRect(float left, float top, float right, float bottom) {
+        clips++;
+        sink += bottom;
+    }
+
+    @Override
+    public void restore() {
+        restores++;
+    }
+
+    @Override
+    public void drawHorizon(float startX, float startY, float stopX, float stopY) {
+        lines++;
+        sink += stopX;
+    }
+
+    @Override
+    public void drawArc(float left, float top, float right, float bottom, float startAngle, float sweepAngle) {
+        arcs++;
+        sink += sweepAngle;
+    }
+
+    @Override
+    public void drawEyes(float[] points, int offset, int count, float radius) {
+        eyeBatches++;
+        sink += points[offset] + radius;
+    }
+
+    @Override
+    public void drawLines(float[] points, int offset, int count) {
+        lineBatches++;
+        sink += points[offset + count - 1];
+    }
+}
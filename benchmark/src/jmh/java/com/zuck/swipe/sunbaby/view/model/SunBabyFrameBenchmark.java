@@ -0,0 +1,128 @@
+package com.zuck.swipe.sunbaby.view.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 逐项测量每帧的更新与绘制开销，播放时间每次调用前进一帧（16ms），覆盖整个动画循环。
+ * <p>
+ * 运行 {@code ./gradlew :benchmark:jmh}，结果（含 gc 分析器给出的每次调用分配字节数）写入
+ * {@code benchmark/build/reports/jmh/results.json}。
+ */
+@State(Scope.Thread)
+public class SunBabyFrameBenchmark {
+
+    private static final int SIZE = 360;
+
+    private static final long FRAME_INTERVAL = 16;
+
+    private final SunBabyModel model = new SunBabyModel();
+
+    private SunFrame frame;
+
+    private LineBatch batch;
+
+    private SunshineRays rays;
+
+    private final RecordingSunCanvas canvas = new RecordingSunCanvas();
+
+    private long playTime;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        model.setSize(SIZE, SIZE);
+        frame = model.newFrame();
+        batch = new LineBatch(model.getRayCount());
+
+        rays = new SunshineRays(360f / SunBabyModel.DEFAULT_RAY_COUNT);
+        rays.setRadius(112, 127);
+    }
+
+    /**
+     * 原 drawSunshine() 的计算方式：每条光芒的起点与终点各求一次三角函数，只保留地平线以上的光芒
+     */
+    private static int legacySunshineRays(float spin, float centerX, float centerY, float lineStartY, float[] out) {
+        final float separation = 360f / SunBabyModel.DEFAULT_RAY_COUNT;
+        int n = 0;
+        for (float a = 0; a < 360; a += separation) {
+            final double startX = Math.cos(Math.toRadians(a + spin)) * 112 + centerX;
+            final double startY = Math.sin(Math.toRadians(a + spin)) * 112 + centerY;
+            final double stopX = Math.cos(Math.toRadians(a + spin)) * 127 + centerX;
+            final double stopY = Math.sin(Math.toRadians(a + spin)) * 127 + centerY;
+            if (startY <= lineStartY && stopY <= lineStartY) {
+                out[n++] = (float) startX;
+                out[n++] = (float) startY;
+                out[n++] = (float) stopX;
+                out[n++] = (float) stopY;
+            }
+        }
+        return n;
+    }
+
+    private long nextPlayTime() {
+        playTime += FRAME_INTERVAL;
+        if (playTime >= SunBabyTimeline.CYCLE_DURATION * 4) playTime = 0;
+        return playTime;
+    }
+
+    /**
+     * 各条动画轨道的取值（原先各个 AnimatorUpdateListener 中的计算）
+     */
+    @Benchmark
+    public float timelineEvaluate() {
+        SunBabyTimeline.evaluate(nextPlayTime(), frame);
+        return frame.offsetY;
+    }
+
+    /**
+     * 太阳圆弧与地平线交点的角度（Math.asin）
+     */
+    @Benchmark
+    public float calcOffsetAngle() {
+        final float offsetY = (nextPlayTime() % 60) - 40;
+        return SunBabyModel.calcOffsetAngle(offsetY, 90);
+    }
+
+    /**
+     * 光芒端点的计算
+     */
+    @Benchmark
+    public int sunshineRays() {
+        final long t = nextPlayTime();
+        final float spin = (t % SunBabyTimeline.SPIN_DURATION) * 360f / SunBabyTimeline.SPIN_DURATION;
+        return rays.compute(spin, SIZE * .5f, 250 + t % 40, 270, frame.rayPoints);
+    }
+
+    /**
+     * 与 {@link #sunshineRays()} 输入相同，按原先 drawSunshine() 的方式逐条光芒求 sin/cos，作为对照
+     */
+    @Benchmark
+    public int sunshineRaysLegacy() {
+        final long t = nextPlayTime();
+        final float spin = (t % SunBabyTimeline.SPIN_DURATION) * 360f / SunBabyTimeline.SPIN_DURATION;
+        return legacySunshineRays(spin, SIZE * .5f, 250 + t % 40, 270, frame.rayPoints);
+    }
+
+    /**
+     * 一帧完整的更新：动画轨道 + 图形计算
+     */
+    @Benchmark
+    public SunFrame frameAt() {
+        return model.frameAt(nextPlayTime(), frame);
+    }
+
+    /**
+     * 一帧完整的更新与绘制（地平线与光芒合并为一次调用），绘制调用只被记录，不产生像素
+     */
+    @Benchmark
+    public float frameAtAndDraw() {
+        model.frameAt(nextPlayTime(), frame);
+        canvas.reset();
+        SunPainter.drawFrame(model, frame, batch, canvas);
+        return canvas.sink + canvas.getCanvasCalls();
+    }
+
+}
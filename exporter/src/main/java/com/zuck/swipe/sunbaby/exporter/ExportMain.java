@@ -0,0 +1,126 @@
+package com.zuck.swipe.sunbaby.exporter;
+
+import com.zuck.swipe.sunbaby.view.SunBabyStyle;
+import com.zuck.swipe.sunbaby.view.model.SunBabyModel;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * 命令行入口：
+ * <pre>
+ * --format gif|png   输出格式，png 时 --out 为目录（默认 gif）
+ * --size WxH         画面尺寸，单位像素（默认 360x360）
+ * --density D        屏幕密度，线宽、文字与眼睛等设计尺寸按 D / 3 缩放（默认 3）
+ * --fps N            帧率，GIF 最高 50（默认 30）
+ * --duration MS      导出时长，单位毫秒（默认一次升起落下循环）
+ * --color #AARRGGBB  前景色与文字颜色
+ * --background #AARRGGBB 背景色
+ * --text TEXT        地平线下方的文字
+ * --out PATH         输出文件或目录
+ * </pre>
+ */
+public final class ExportMain {
+
+    private ExportMain() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        String format = "gif";
+        int width = 360, height = 360;
+        float density = SunBabyModel.DESIGN_DENSITY;
+        int frameRate = 30;
+        long duration = 0;
+        Integer color = null, background = null;
+        String text = null;
+        File out = null;
+
+        for (int i = 0; i < args.length; i++) {
+            final String arg = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            final String value = args[++i];
+            if ("--format".equals(arg)) {
+                format = value;
+            } else if ("--size".equals(arg)) {
+                final int separator = value.indexOf('x');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Size must be WxH: " + value);
+                }
+                width = Integer.parseInt(value.substring(0, separator));
+                height = Integer.parseInt(value.substring(separator + 1));
+            } else if ("--density".equals(arg)) {
+                density = Float.parseFloat(value);
+            } else if ("--fps".equals(arg)) {
+                frameRate = Integer.parseInt(value);
+            } else if ("--duration".equals(arg)) {
+                duration = Long.parseLong(value);
+            } else if ("--color".equals(arg)) {
+                color = parseColor(value);
+            } else if ("--background".equals(arg)) {
+                background = parseColor(value);
+            } else if ("--text".equals(arg)) {
+                text = value;
+            } else if ("--out".equals(arg)) {
+                out = new File(value);
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (out == null) {
+            throw new IllegalArgumentException("Missing --out");
+        }
+
+        // 与 View 读取属性时相同：未设置的尺寸按屏幕密度由设计尺寸换算为像素
+        final float scale = density / SunBabyModel.DESIGN_DENSITY;
+        final SunBabyStyle.Builder builder = new SunBabyStyle.Builder()
+                .setStrokeWidths(SunBabyModel.DEFAULT_LINE_STROKE_WIDTH * scale, SunBabyModel.DEFAULT_SUN_STROKE_WIDTH * scale)
+                .setTextSize(SunBabyStyle.DEFAULT_TEXT_SIZE * scale);
+        if (color != null) {
+            builder.setColor(color).setTextColor(color);
+        }
+        if (background != null) {
+            builder.setBackgroundColor(background);
+        }
+        if (text != null) {
+            builder.setText(text);
+        }
+
+        final SunBabyExporter exporter = new SunBabyExporter(width, height)
+                .setScale(scale)
+                .setStyle(builder.build())
+                .setFrameRate(frameRate)
+                .setDuration(duration);
+
+        final FrameWriter writer;
+        if ("gif".equals(format)) {
+            if (frameRate > GifWriter.MAX_FRAME_RATE) {
+                throw new IllegalArgumentException("GIF frame rate must not exceed " + GifWriter.MAX_FRAME_RATE + ": " + frameRate);
+            }
+            if (out.getParentFile() != null) out.getParentFile().mkdirs();
+            writer = new GifWriter(out);
+        } else if ("png".equals(format)) {
+            writer = new PngSequenceWriter(out);
+        } else {
+            throw new IllegalArgumentException("Unknown format: " + format);
+        }
+        try {
+            exporter.export(writer);
+        } finally {
+            writer.close();
+        }
+        System.out.println("Wrote " + exporter.getFrameCount() + " frames to " + out);
+    }
+
+    /**
+     * 解析 #RRGGBB 或 #AARRGGBB 格式的颜色
+     */
+    private static int parseColor(String value) {
+        final String hex = value.startsWith("#") ? value.substring(1) : value;
+        final long color = Long.parseLong(hex, 16);
+        if (hex.length() == 6) return (int) (color | 0xFF000000L);
+        if (hex.length() == 8) return (int) color;
+        throw new IllegalArgumentException("Unknown color: " + value);
+    }
+}
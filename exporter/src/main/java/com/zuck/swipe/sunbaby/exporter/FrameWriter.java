@@ -0,0 +1,26 @@
+package com.zuck.swipe.sunbaby.exporter;
+
+import com.zuck.swipe.sunbaby.view.SunBabyStyle;
+
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 逐帧接收导出画面的编码器。每帧绘制完成后立即写出，不在内存中保留整个循环。
+ */
+public interface FrameWriter extends Closeable {
+
+    /**
+     * 创建用于绘制的帧图像，之后每帧都复用这一张，由编码器决定最适合的像素格式
+     */
+    BufferedImage createImage(int width, int height, SunBabyStyle style);
+
+    /**
+     * 写出一帧
+     * @param image {@link #createImage(int, int, SunBabyStyle)} 创建的图像，返回后会被下一帧覆盖
+     * @param index 帧序号，从 0 开始
+     * @param durationMillis 这一帧显示的时长，单位毫秒
+     */
+    void writeFrame(BufferedImage image, int index, double durationMillis) throws IOException;
+}
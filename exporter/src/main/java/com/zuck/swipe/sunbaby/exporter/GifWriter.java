@@ -0,0 +1,316 @@
+package com.zuck.swipe.sunbaby.exporter;
+
+import com.zuck.swipe.sunbaby.view.SunBabyStyle;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * 无限循环的 GIF 动图，每帧通过 {@link ImageWriter#writeToSequence} 直接写入文件，
+ * 第一帧之后只写出与上一帧不同的区域。
+ * <p>
+ * 画面只有背景色、前景色与文字颜色，调色板由背景色到前景色、背景色到文字颜色的两段渐变组成，
+ * 每个像素直接投影到最接近的渐变上，抗锯齿的边缘不会因为量化或抖动出现杂色，也不需要逐帧计算调色板。
+ */
+public final class GifWriter implements FrameWriter {
+
+    private static final String STREAM_METADATA_FORMAT = "javax_imageio_gif_stream_1.0";
+
+    private static final String METADATA_FORMAT = "javax_imageio_gif_image_1.0";
+
+    /**
+     * 浏览器会把短于 20 毫秒的帧当作 100 毫秒播放，因此帧率不能高于 50
+     */
+    public static final int MAX_FRAME_RATE = 50;
+
+    private static final double MIN_FRAME_DURATION = 1000.0 / MAX_FRAME_RATE;
+
+    /**
+     * 每段渐变的颜色数
+     */
+    private static final int RAMP_SIZE = 128;
+
+    private final ImageWriter writer;
+
+    private final ImageOutputStream output;
+
+    private final ImageWriteParam param;
+
+    /**
+     * 背景色与两段渐变的终点颜色
+     */
+    private int background, color, textColor;
+
+    /**
+     * 写出时使用的索引图像，每帧复用
+     */
+    private BufferedImage indexed;
+
+    private int[] rgbRow;
+
+    /**
+     * 上一帧的索引像素，第一帧之前为 null
+     */
+    private byte[] previous;
+
+    /**
+     * 与上一帧不同的像素所在的区域，没有变化时 dirtyRight 为 -1
+     */
+    private int dirtyLeft, dirtyTop, dirtyRight, dirtyBottom;
+
+    /**
+     * 调色板的红、绿、蓝分量，写入第一帧前作为全局颜色表写入文件头
+     */
+    private byte[][] palette;
+
+    private boolean prepared;
+
+    /**
+     * 已写出的帧的总时长，用于把每帧的时长舍入到百分之一秒时不累积误差
+     */
+    private double elapsedMillis;
+
+    public GifWriter(File file) throws IOException {
+        final Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("gif");
+        if (!writers.hasNext()) {
+            throw new IOException("No GIF writer available");
+        }
+        writer = writers.next();
+        param = writer.getDefaultWriteParam();
+
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Cannot overwrite file: " + file);
+        }
+        output = ImageIO.createImageOutputStream(file);
+        if (output == null) {
+            throw new IOException("Cannot open file: " + file);
+        }
+        writer.setOutput(output);
+    }
+
+    @Override
+    public BufferedImage createImage(int width, int height, SunBabyStyle style) {
+        background = style.getBackgroundColor();
+        color = style.getColor();
+        textColor = style.getTextColor();
+
+        final byte[] r = new byte[RAMP_SIZE * 2], g = new byte[RAMP_SIZE * 2], b = new byte[RAMP_SIZE * 2];
+        fillRamp(background, color, 0, r, g, b);
+        fillRamp(background, textColor, RAMP_SIZE, r, g, b);
+        final IndexColorModel colorModel = new IndexColorModel(8, RAMP_SIZE * 2, r, g, b);
+        palette = new byte[][]{r, g, b};
+        indexed = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_INDEXED, colorModel);
+        rgbRow = new int[width];
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * 开始写入：调色板作为全局颜色表写入文件头，各帧不再单独写颜色表
+     */
+    private void prepare(int width, int height, byte[] r, byte[] g, byte[] b) throws IOException {
+        final IIOMetadata metadata = writer.getDefaultStreamMetadata(param);
+        final IIOMetadataNode root = new IIOMetadataNode(STREAM_METADATA_FORMAT);
+
+        final IIOMetadataNode screen = new IIOMetadataNode("LogicalScreenDescriptor");
+        screen.setAttribute("logicalScreenWidth", Integer.toString(width));
+        screen.setAttribute("logicalScreenHeight", Integer.toString(height));
+        screen.setAttribute("colorResolution", "8");
+        screen.setAttribute("pixelAspectRatio", "0");
+        root.appendChild(screen);
+
+        final IIOMetadataNode table = new IIOMetadataNode("GlobalColorTable");
+        table.setAttribute("sizeOfGlobalColorTable", Integer.toString(r.length));
+        table.setAttribute("backgroundColorIndex", "0");
+        table.setAttribute("sortFlag", "FALSE");
+        for (int i = 0; i < r.length; i++) {
+            final IIOMetadataNode entry = new IIOMetadataNode("ColorTableEntry");
+            entry.setAttribute("index", Integer.toString(i));
+            entry.setAttribute("red", Integer.toString(r[i] & 0xFF));
+            entry.setAttribute("green", Integer.toString(g[i] & 0xFF));
+            entry.setAttribute("blue", Integer.toString(b[i] & 0xFF));
+            table.appendChild(entry);
+        }
+        root.appendChild(table);
+
+        metadata.mergeTree(STREAM_METADATA_FORMAT, root);
+        writer.prepareWriteSequence(metadata);
+        prepared = true;
+    }
+
+    /**
+     * 把绘制好的图像逐行映射到调色板，同时找出与上一帧不同的区域
+     */
+    private void quantize(BufferedImage image) {
+        final int width = indexed.getWidth();
+        final byte[] pixels = ((DataBufferByte) indexed.getRaster().getDataBuffer()).getData();
+        dirtyLeft = width;
+        dirtyTop = indexed.getHeight();
+        dirtyRight = dirtyBottom = -1;
+        for (int y = 0; y < indexed.getHeight(); y++) {
+            image.getRGB(0, y, width, 1, rgbRow, 0, width);
+            final int row = y * width;
+            for (int x = 0; x < width; x++) {
+                final byte index = (byte) nearestIndex(rgbRow[x]);
+                pixels[row + x] = index;
+                if (previous != null && previous[row + x] != index) {
+                    dirtyLeft = Math.min(dirtyLeft, x);
+                    dirtyTop = Math.min(dirtyTop, y);
+                    dirtyRight = Math.max(dirtyRight, x);
+                    dirtyBottom = Math.max(dirtyBottom, y);
+                }
+            }
+        }
+    }
+
+    /**
+     * 复制出一块独立的索引图像，GIF 编码器不支持带偏移量的子图像
+     */
+    private BufferedImage copyRegion(int left, int top, int width, int height) {
+        final BufferedImage region = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_INDEXED,
+                (IndexColorModel) indexed.getColorModel());
+        region.getRaster().setDataElements(0, 0, indexed.getRaster().createChild(left, top, width, height, 0, 0, null));
+        return region;
+    }
+
+    /**
+     * 把像素投影到两段渐变上，取误差较小的一段
+     */
+    private int nearestIndex(int pixel) {
+        if ((pixel & 0xFFFFFF) == (background & 0xFFFFFF)) return 0;
+
+        final int index = nearestOnRamp(pixel, color);
+        if (textColor == color) return index;
+        final int textIndex = RAMP_SIZE + nearestOnRamp(pixel, textColor);
+        return distance(pixel, indexed.getColorModel().getRGB(index)) <= distance(pixel, indexed.getColorModel().getRGB(textIndex))
+                ? index : textIndex;
+    }
+
+    private int nearestOnRamp(int pixel, int to) {
+        final int dr = red(to) - red(background), dg = green(to) - green(background), db = blue(to) - blue(background);
+        final int length = dr * dr + dg * dg + db * db;
+        if (length == 0) return 0;
+
+        final int pr = red(pixel) - red(background), pg = green(pixel) - green(background), pb = blue(pixel) - blue(background);
+        final float fraction = Math.max(0, Math.min(1, (float) (pr * dr + pg * dg + pb * db) / length));
+        return Math.round(fraction * (RAMP_SIZE - 1));
+    }
+
+    private static int distance(int a, int b) {
+        final int dr = red(a) - red(b), dg = green(a) - green(b), db = blue(a) - blue(b);
+        return dr * dr + dg * dg + db * db;
+    }
+
+    private static int red(int color) {
+        return (color >> 16) & 0xFF;
+    }
+
+    private static int green(int color) {
+        return (color >> 8) & 0xFF;
+    }
+
+    private static int blue(int color) {
+        return color & 0xFF;
+    }
+
+    private static void fillRamp(int from, int to, int offset, byte[] r, byte[] g, byte[] b) {
+        for (int i = 0; i < RAMP_SIZE; i++) {
+            final float fraction = (float) i / (RAMP_SIZE - 1);
+            r[offset + i] = (byte) lerp(red(from), red(to), fraction);
+            g[offset + i] = (byte) lerp(green(from), green(to), fraction);
+            b[offset + i] = (byte) lerp(blue(from), blue(to), fraction);
+        }
+    }
+
+    private static int lerp(int from, int to, float fraction) {
+        return Math.round(from + (to - from) * fraction);
+    }
+
+    @Override
+    public void writeFrame(BufferedImage image, int index, double durationMillis) throws IOException {
+        if (durationMillis < MIN_FRAME_DURATION) {
+            throw new IllegalArgumentException("GIF frames must last at least " + MIN_FRAME_DURATION + "ms: " + durationMillis);
+        }
+
+        final long start = Math.round(elapsedMillis / 10);
+        elapsedMillis += durationMillis;
+        final int delay = (int) (Math.round(elapsedMillis / 10) - start);
+
+        if (!prepared) {
+            prepare(indexed.getWidth(), indexed.getHeight(), palette[0], palette[1], palette[2]);
+        }
+        quantize(image);
+
+        // 第一帧写出整个画面，之后只写出变化的区域，其余部分保留上一帧的内容
+        BufferedImage region = indexed;
+        int left = 0, top = 0;
+        if (previous == null) {
+            previous = new byte[indexed.getWidth() * indexed.getHeight()];
+        } else if (dirtyRight < 0) {
+            region = copyRegion(0, 0, 1, 1);
+        } else {
+            left = dirtyLeft;
+            top = dirtyTop;
+            region = copyRegion(left, top, dirtyRight - dirtyLeft + 1, dirtyBottom - dirtyTop + 1);
+        }
+        System.arraycopy(((DataBufferByte) indexed.getRaster().getDataBuffer()).getData(), 0, previous, 0, previous.length);
+
+        final IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(region), param);
+        final IIOMetadataNode root = new IIOMetadataNode(METADATA_FORMAT);
+
+        // 不写局部颜色表，使用文件头中的全局颜色表
+        final IIOMetadataNode descriptor = new IIOMetadataNode("ImageDescriptor");
+        descriptor.setAttribute("imageLeftPosition", Integer.toString(left));
+        descriptor.setAttribute("imageTopPosition", Integer.toString(top));
+        descriptor.setAttribute("imageWidth", Integer.toString(region.getWidth()));
+        descriptor.setAttribute("imageHeight", Integer.toString(region.getHeight()));
+        descriptor.setAttribute("interlaceFlag", "FALSE");
+        root.appendChild(descriptor);
+
+        final IIOMetadataNode control = new IIOMetadataNode("GraphicControlExtension");
+        control.setAttribute("disposalMethod", "none");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("delayTime", Integer.toString(delay));
+        control.setAttribute("transparentColorIndex", "0");
+        root.appendChild(control);
+
+        if (index == 0) {
+            // NETSCAPE2.0 扩展：循环次数为 0 表示无限循环
+            final IIOMetadataNode extensions = new IIOMetadataNode("ApplicationExtensions");
+            final IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+            loop.setAttribute("applicationID", "NETSCAPE");
+            loop.setAttribute("authenticationCode", "2.0");
+            loop.setUserObject(new byte[]{1, 0, 0});
+            extensions.appendChild(loop);
+            root.appendChild(extensions);
+        }
+
+        metadata.setFromTree(METADATA_FORMAT, root);
+        writer.writeToSequence(new IIOImage(region, null, metadata), param);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (prepared) {
+                writer.endWriteSequence();
+            }
+        } finally {
+            writer.dispose();
+            output.close();
+        }
+    }
+}
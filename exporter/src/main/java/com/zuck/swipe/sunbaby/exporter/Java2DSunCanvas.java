@@ -0,0 +1,108 @@
+package com.zuck.swipe.sunbaby.exporter;
+
+import com.zuck.swipe.sunbaby.view.SunBabyStyle;
+import com.zuck.swipe.sunbaby.view.model.SunCanvas;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * 把 {@link SunCanvas} 的调用转发到 Java2D，画笔的配置与 View 中的 {@code SunBabyPaints} 相同。
+ * <p>
+ * Android 的角度从 3 点钟方向顺时针增加，Java2D 则是逆时针，因此圆弧的角度取反。
+ */
+final class Java2DSunCanvas implements SunCanvas {
+
+    private final Color color;
+
+    /**
+     * 地平线与光芒的线条：圆头、圆角
+     */
+    private final BasicStroke lineStroke;
+
+    /**
+     * 太阳圆弧：平头，与 Android Paint 的默认值相同
+     */
+    private final BasicStroke sunStroke;
+
+    private final Line2D.Float line = new Line2D.Float();
+
+    private final Arc2D.Float arc = new Arc2D.Float(Arc2D.OPEN);
+
+    private final Ellipse2D.Float eye = new Ellipse2D.Float();
+
+    private final Rectangle2D.Float clip = new Rectangle2D.Float();
+
+    private Graphics2D graphics;
+
+    private Shape savedClip;
+
+    Java2DSunCanvas(SunBabyStyle style) {
+        color = new Color(style.getColor(), true);
+        lineStroke = new BasicStroke(style.getLineStrokeWidth(), BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+        sunStroke = new BasicStroke(style.getSunStrokeWidth(), BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER);
+    }
+
+    SunCanvas wrap(Graphics2D graphics) {
+        this.graphics = graphics;
+        return this;
+    }
+
+    void release() {
+        graphics = null;
+        savedClip = null;
+    }
+
+    @Override
+    public void clipRect(float left, float top, float right, float bottom) {
+        savedClip = graphics.getClip();
+        clip.setRect(left, top, right - left, bottom - top);
+        graphics.clip(clip);
+    }
+
+    @Override
+    public void restore() {
+        graphics.setClip(savedClip);
+    }
+
+    @Override
+    public void drawHorizon(float startX, float startY, float stopX, float stopY) {
+        graphics.setColor(color);
+        graphics.setStroke(lineStroke);
+        line.setLine(startX, startY, stopX, stopY);
+        graphics.draw(line);
+    }
+
+    @Override
+    public void drawArc(float left, float top, float right, float bottom, float startAngle, float sweepAngle) {
+        graphics.setColor(color);
+        graphics.setStroke(sunStroke);
+        arc.setArc(left, top, right - left, bottom - top, -startAngle, -sweepAngle, Arc2D.OPEN);
+        graphics.draw(arc);
+    }
+
+    @Override
+    public void drawEyes(float[] points, int offset, int count, float radius) {
+        graphics.setColor(color);
+        for (int i = offset; i < offset + count; i += 2) {
+            eye.setFrame(points[i] - radius, points[i + 1] - radius, radius * 2, radius * 2);
+            graphics.fill(eye);
+        }
+    }
+
+    @Override
+    public void drawLines(float[] points, int offset, int count) {
+        graphics.setColor(color);
+        graphics.setStroke(lineStroke);
+        for (int i = offset; i < offset + count; i += 4) {
+            line.setLine(points[i], points[i + 1], points[i + 2], points[i + 3]);
+            graphics.draw(line);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.zuck.swipe.sunbaby.exporter;
+
+import com.zuck.swipe.sunbaby.view.SunBabyStyle;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+import javax.imageio.ImageIO;
+
+/**
+ * 把每帧写成一张 PNG，文件名为 {@code frame_0000.png}、{@code frame_0001.png}……
+ * <p>
+ * 可以再交给 ffmpeg 等工具编码为视频或 WebP 动图。
+ */
+public final class PngSequenceWriter implements FrameWriter {
+
+    private final File directory;
+
+    public PngSequenceWriter(File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create directory: " + directory);
+        }
+        this.directory = directory;
+    }
+
+    @Override
+    public BufferedImage createImage(int width, int height, SunBabyStyle style) {
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    @Override
+    public void writeFrame(BufferedImage image, int index, double durationMillis) throws IOException {
+        final File file = new File(directory, String.format(Locale.US, "frame_%04d.png", index));
+        if (!ImageIO.write(image, "png", file)) {
+            throw new IOException("No PNG writer available");
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,170 @@
+package com.zuck.swipe.sunbaby.exporter;
+
+import com.zuck.swipe.sunbaby.view.SunBabyStyle;
+import com.zuck.swipe.sunbaby.view.model.LineBatch;
+import com.zuck.swipe.sunbaby.view.model.SunBabyModel;
+import com.zuck.swipe.sunbaby.view.model.SunFrame;
+import com.zuck.swipe.sunbaby.view.model.SunPainter;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineMetrics;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * 在没有显示器的 JVM 上逐帧渲染太阳宝宝的动画。
+ * <p>
+ * 每帧的播放时间只由帧序号与帧率决定，与 View 使用同一套 {@link SunBabyModel} 和 {@link SunPainter}，
+ * 同样的参数总是导出完全相同的画面。绘制用的图像只有一张，每帧画完立即交给 {@link FrameWriter}。
+ * <p>
+ * 导出的素材通常循环播放，与烘焙的帧图集一样按 {@link SunBabyModel#loopFrameAt(long, SunFrame)} 计算画面：
+ * 阳光每个循环旋转光芒间隔的整数倍，导出整数个循环时首尾相接处光芒不会跳动。
+ */
+public final class SunBabyExporter {
+
+    private final int width, height;
+
+    private float scale = 1;
+
+    private SunBabyStyle style = SunBabyStyle.DEFAULT;
+
+    private int frameRate = 30;
+
+    /**
+     * 导出的时长，0 表示一次升起落下循环的时长
+     */
+    private long duration;
+
+    /**
+     * @param width 画面的宽，单位像素
+     * @param height 画面的高，单位像素
+     */
+    public SunBabyExporter(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Size must be positive: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * 设计尺寸到像素的缩放比例，与 View 中屏幕密度除以 {@link SunBabyModel#DESIGN_DENSITY} 相同。
+     * 样式中的线宽与文字大小不会随之缩放，需要自行设置
+     */
+    public SunBabyExporter setScale(float scale) {
+        if (scale <= 0) {
+            throw new IllegalArgumentException("Scale must be positive: " + scale);
+        }
+        this.scale = scale;
+        return this;
+    }
+
+    public SunBabyExporter setStyle(SunBabyStyle style) {
+        this.style = style;
+        return this;
+    }
+
+    public SunBabyExporter setFrameRate(int frameRate) {
+        if (frameRate <= 0) {
+            throw new IllegalArgumentException("Frame rate must be positive: " + frameRate);
+        }
+        this.frameRate = frameRate;
+        return this;
+    }
+
+    /**
+     * @param duration 导出的时长，单位毫秒；0 表示一次升起落下循环的时长
+     */
+    public SunBabyExporter setDuration(long duration) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("Duration must not be negative: " + duration);
+        }
+        this.duration = duration;
+        return this;
+    }
+
+    /**
+     * 导出的帧数
+     */
+    public int getFrameCount() {
+        final long duration = this.duration > 0 ? this.duration : style.getCycleDuration();
+        return (int) Math.max(1, Math.round(duration * frameRate / 1000.0));
+    }
+
+    /**
+     * 第 index 帧的播放时间，单位毫秒
+     */
+    long getPlayTime(int index) {
+        return Math.round(index * 1000.0 / frameRate);
+    }
+
+    /**
+     * 渲染所有帧并依次写入 writer，不会关闭 writer
+     */
+    public void export(FrameWriter writer) throws IOException {
+        final SunBabyModel model = new SunBabyModel();
+        model.setScale(scale);
+        model.setStrokeWidths(style.getLineStrokeWidth(), style.getSunStrokeWidth());
+        model.setRayCount(style.getRayCount());
+        model.setScript(style.getScript());
+        model.setDurations(style.getCycleDuration(), style.getSpinDuration());
+        model.setSize(width, height);
+        final SunFrame frame = model.newFrame();
+        final LineBatch batch = new LineBatch(model.getRayCount());
+
+        final BufferedImage image = writer.createImage(width, height, style);
+        final Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+
+            final Color background = new Color(style.getBackgroundColor(), true);
+            final Color textColor = new Color(style.getTextColor(), true);
+            final Shape text = layoutText(model, graphics.getFontRenderContext());
+            final BasicStroke textStroke = new BasicStroke(1);
+            final Java2DSunCanvas canvas = new Java2DSunCanvas(style);
+            final double frameDuration = 1000.0 / frameRate;
+
+            final int frameCount = getFrameCount();
+            for (int i = 0; i < frameCount; i++) {
+                model.loopFrameAt(getPlayTime(i), frame);
+
+                graphics.setColor(background);
+                graphics.fillRect(0, 0, width, height);
+
+                SunPainter.drawFrame(model, frame, batch, canvas.wrap(graphics));
+                canvas.release();
+
+                // 与 View 中的文字画笔相同，填充并描边 1 像素
+                graphics.setColor(textColor);
+                graphics.fill(text);
+                graphics.setStroke(textStroke);
+                graphics.draw(text);
+
+                writer.writeFrame(image, i, frameDuration);
+            }
+        } finally {
+            graphics.dispose();
+        }
+    }
+
+    /**
+     * 文字的轮廓，位置与 View 中一致：水平居中，竖直方向位于地平线与底边之间的正中
+     */
+    private Shape layoutText(SunBabyModel model, FontRenderContext context) {
+        final Font font = new Font(Font.SANS_SERIF, Font.PLAIN, 1).deriveFont(style.getTextSize());
+        final String text = style.getText();
+        final LineMetrics metrics = font.getLineMetrics(text, context);
+        final float lineStartY = model.getLineStartY();
+        final float textY = lineStartY + (height - lineStartY) * .5f + Math.abs(metrics.getDescent() - metrics.getAscent()) * .5f;
+        final float textWidth = (float) font.getStringBounds(text, context).getWidth();
+        return font.createGlyphVector(context, text).getOutline(width * .5f - textWidth * .5f, textY);
+    }
+}
@@ -0,0 +1,175 @@
+package com.zuck.swipe.sunbaby.exporter;
+
+import com.zuck.swipe.sunbaby.view.SunBabyStyle;
+import com.zuck.swipe.sunbaby.view.model.SunBabyTimeline;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Node;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+
+import static org.junit.Assert.*;
+
+public class SunBabyExporterTest {
+
+    private static final int SIZE = 120;
+
+    private static final int FRAME_RATE = 10;
+
+    /**
+     * GIF 调色板量化后每个颜色通道允许的误差
+     */
+    private static final int COLOR_TOLERANCE = 8;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void getFrameCount_coversOneCycle() {
+        SunBabyExporter exporter = new SunBabyExporter(SIZE, SIZE).setFrameRate(FRAME_RATE);
+        assertEquals(Math.round(SunBabyTimeline.CYCLE_DURATION * FRAME_RATE / 1000.0), exporter.getFrameCount());
+        assertEquals(100, exporter.getPlayTime(1));
+
+        exporter.setDuration(1000);
+        assertEquals(FRAME_RATE, exporter.getFrameCount());
+    }
+
+    @Test
+    public void export_isDeterministic() throws IOException {
+        List<BufferedImage> first = render();
+        List<BufferedImage> second = render();
+
+        assertEquals(first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertArrayEquals(pixels(first.get(i)), pixels(second.get(i)));
+        }
+    }
+
+    @Test
+    public void export_loopsSeamlessly() throws IOException {
+        // 多导出一帧，恰好落在下一个循环的起点，应与第一帧完全相同
+        final long frameDuration = 1000 / FRAME_RATE;
+        List<BufferedImage> frames = render(SunBabyTimeline.CYCLE_DURATION + frameDuration);
+        assertEquals(SunBabyTimeline.CYCLE_DURATION / frameDuration + 1, frames.size());
+
+        assertArrayEquals(pixels(frames.get(0)), pixels(frames.get(frames.size() - 1)));
+    }
+
+    @Test
+    public void exportPng_writesOneFilePerFrame() throws IOException {
+        File directory = folder.newFolder("png");
+        SunBabyExporter exporter = new SunBabyExporter(SIZE, SIZE).setFrameRate(FRAME_RATE).setDuration(500);
+        exporter.export(new PngSequenceWriter(directory));
+
+        assertEquals(5, directory.listFiles().length);
+        BufferedImage image = ImageIO.read(new File(directory, "frame_0004.png"));
+        assertEquals(SIZE, image.getWidth());
+        assertEquals(SunBabyStyle.DEFAULT_BACKGROUND_COLOR, image.getRGB(0, 0));
+    }
+
+    @Test
+    public void exportGif_matchesRenderedFrames() throws IOException {
+        File file = folder.newFile("sunbaby.gif");
+        SunBabyExporter exporter = new SunBabyExporter(SIZE, SIZE).setFrameRate(FRAME_RATE);
+        GifWriter writer = new GifWriter(file);
+        try {
+            exporter.export(writer);
+        } finally {
+            writer.close();
+        }
+
+        List<BufferedImage> expected = render();
+        ImageReader reader = ImageIO.getImageReadersByFormatName("gif").next();
+        ImageInputStream input = ImageIO.createImageInputStream(file);
+        try {
+            reader.setInput(input);
+            assertEquals(expected.size(), reader.getNumImages(true));
+            assertNotNull(child(reader.getImageMetadata(0), "ApplicationExtensions"));
+
+            // 每帧只包含变化的区域，按偏移量叠加到画布上还原完整画面
+            BufferedImage composed = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+            int totalDelay = 0;
+            for (int i = 0; i < expected.size(); i++) {
+                IIOMetadataNode descriptor = child(reader.getImageMetadata(i), "ImageDescriptor");
+                IIOMetadataNode control = child(reader.getImageMetadata(i), "GraphicControlExtension");
+                BufferedImage region = reader.read(i);
+                composed.getGraphics().drawImage(region,
+                        Integer.parseInt(descriptor.getAttribute("imageLeftPosition")),
+                        Integer.parseInt(descriptor.getAttribute("imageTopPosition")), null);
+                totalDelay += Integer.parseInt(control.getAttribute("delayTime"));
+
+                assertSimilar(expected.get(i), composed);
+            }
+            assertEquals(expected.size() * 100 / FRAME_RATE, totalDelay);
+        } finally {
+            input.close();
+            reader.dispose();
+        }
+    }
+
+    /**
+     * 按默认参数渲染一个循环，复制每一帧
+     */
+    private static List<BufferedImage> render() throws IOException {
+        return render(0);
+    }
+
+    /**
+     * 按默认参数渲染 duration 毫秒，复制每一帧
+     */
+    private static List<BufferedImage> render(long duration) throws IOException {
+        final List<BufferedImage> frames = new ArrayList<>();
+        new SunBabyExporter(SIZE, SIZE).setFrameRate(FRAME_RATE).setDuration(duration).export(new FrameWriter() {
+            @Override
+            public BufferedImage createImage(int width, int height, SunBabyStyle style) {
+                return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            }
+
+            @Override
+            public void writeFrame(BufferedImage image, int index, double durationMillis) {
+                BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+                copy.setData(image.getData());
+                frames.add(copy);
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        return frames;
+    }
+
+    private static int[] pixels(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    private static void assertSimilar(BufferedImage expected, BufferedImage actual) {
+        int[] expectedPixels = pixels(expected);
+        int[] actualPixels = pixels(actual);
+        for (int i = 0; i < expectedPixels.length; i++) {
+            for (int shift = 0; shift < 24; shift += 8) {
+                int difference = ((expectedPixels[i] >> shift) & 0xFF) - ((actualPixels[i] >> shift) & 0xFF);
+                assertTrue("pixel " + i, Math.abs(difference) <= COLOR_TOLERANCE);
+            }
+        }
+    }
+
+    private static IIOMetadataNode child(javax.imageio.metadata.IIOMetadata metadata, String name) {
+        Node root = metadata.getAsTree("javax_imageio_gif_image_1.0");
+        for (Node node = root.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (name.equals(node.getNodeName())) return (IIOMetadataNode) node;
+        }
+        return null;
+    }
+}